@@ -6,17 +6,37 @@ public class ConicalSpiral3D extends JPanel {
 
     private static final int W = 1000, H = 800;
 
-    // 參數區：可依需求微調
-    private static final int TURNS = 6;         // 螺旋圈數
-    private static final double DECAY_PER_TURN = 0.75; // 每轉一圈半徑縮小比例（0.75 = 75%）
-    private static final double D_THETA = 0.01; // 角度步距（弧度），越小越平滑
-    private static final double LIFT_PER_RAD = 6.0; // 每弧度上升的高度（控制“往下位置就抬高一點”）
+    // 參數區：可依需求微調（以下為預設值，也可由建構子指定，例如批次算圖）
+    static final int TURNS = 6;         // 螺旋圈數
+    static final double DECAY_PER_TURN = 0.75; // 每轉一圈半徑縮小比例（0.75 = 75%）
+    static final double D_THETA = 0.01; // 角度步距（弧度），越小越平滑
+    static final double LIFT_PER_RAD = 6.0; // 每弧度上升的高度（控制“往下位置就抬高一點”）
 
     // 視角/投影參數
-    private static final double YAW_DEG = 35;   // 左右旋轉（度）
-    private static final double PITCH_DEG = 25; // 上下俯仰（度）
-    private static final double FOV = 850;      // 透視焦距（越大越不誇張）
-    private static final double DEPTH = 300;    // 透視深度偏移，避免除零
+    static final double YAW_DEG = 35;   // 左右旋轉（度）
+    static final double PITCH_DEG = 25; // 上下俯仰（度）
+    static final double FOV = 850;      // 透視焦距（越大越不誇張）
+    static final double DEPTH = 300;    // 透視深度偏移，避免除零
+
+    private final int turns;
+    private final double decayPerTurn, dTheta, liftPerRad;
+    private final double yawDeg, pitchDeg, fov, depth;
+
+    public ConicalSpiral3D() {
+        this(TURNS, DECAY_PER_TURN, D_THETA, LIFT_PER_RAD, YAW_DEG, PITCH_DEG, FOV, DEPTH);
+    }
+
+    public ConicalSpiral3D(int turns, double decayPerTurn, double dTheta, double liftPerRad,
+                           double yawDeg, double pitchDeg, double fov, double depth) {
+        this.turns = turns;
+        this.decayPerTurn = decayPerTurn;
+        this.dTheta = dTheta;
+        this.liftPerRad = liftPerRad;
+        this.yawDeg = yawDeg;
+        this.pitchDeg = pitchDeg;
+        this.fov = fov;
+        this.depth = depth;
+    }
 
     @Override public Dimension getPreferredSize() { return new Dimension(W, H); }
 
@@ -32,13 +52,13 @@ public class ConicalSpiral3D extends JPanel {
         // 初始半徑用畫面邊長決定
         double r0 = Math.min(getWidth(), getHeight()) * 0.38;
 
-        // 將對數衰減轉為每弧度的縮放：r(θ) = r0 * (DECAY_PER_TURN)^(θ / 2π)
+        // 將對數衰減轉為每弧度的縮放：r(θ) = r0 * (decayPerTurn)^(θ / 2π)
         double twoPi = Math.PI * 2.0;
-        double thetaMax = TURNS * twoPi;
+        double thetaMax = turns * twoPi;
 
         // 把視角轉成弧度，預算旋轉矩陣用的 cos/sin
-        double yaw = Math.toRadians(YAW_DEG);
-        double pitch = Math.toRadians(PITCH_DEG);
+        double yaw = Math.toRadians(yawDeg);
+        double pitch = Math.toRadians(pitchDeg);
         double cyaw = Math.cos(yaw), syaw = Math.sin(yaw);
         double cpitch = Math.cos(pitch), spitch = Math.sin(pitch);
 
@@ -49,19 +69,19 @@ public class ConicalSpiral3D extends JPanel {
         double theta = 0.0;
 
         // 第一個點
-        double r = r0 * Math.pow(DECAY_PER_TURN, theta / twoPi);
+        double r = r0 * Math.pow(decayPerTurn, theta / twoPi);
         double x = r * Math.cos(theta);
         double y = r * Math.sin(theta);
-        double z = LIFT_PER_RAD * theta;
+        double z = liftPerRad * theta;
 
         Point pPrev = project3D(cx, cy, x, y, z, cyaw, syaw, cpitch, spitch);
 
         // 線條從遠到近，近的稍微加粗/深一點
-        for (theta = D_THETA; theta <= thetaMax; theta += D_THETA) {
-            r = r0 * Math.pow(DECAY_PER_TURN, theta / twoPi); // 半徑隨角度遞減
+        for (theta = dTheta; theta <= thetaMax; theta += dTheta) {
+            r = r0 * Math.pow(decayPerTurn, theta / twoPi); // 半徑隨角度遞減
             x = r * Math.cos(theta);
             y = r * Math.sin(theta);
-            z = LIFT_PER_RAD * theta; // 高度隨角度遞增（每一步“抬高一點”）
+            z = liftPerRad * theta; // 高度隨角度遞增（每一步“抬高一點”）
 
             Point p = project3D(cx, cy, x, y, z, cyaw, syaw, cpitch, spitch);
 
@@ -105,18 +125,18 @@ public class ConicalSpiral3D extends JPanel {
         double z2 =  spitch * y1 + cpitch * z1;
 
         // 簡單透視投影
-        double denom = (DEPTH + z2);
+        double denom = (depth + z2);
         if (denom < 1) denom = 1;
 
-        double sx = cx + (FOV * x2) / denom;
-        double sy = cy - (FOV * y2) / denom;
+        double sx = cx + (fov * x2) / denom;
+        double sy = cy - (fov * y2) / denom;
 
         lastZCam = z2; // 給上層用來做顏色/粗細插值
         return new Point((int) Math.round(sx), (int) Math.round(sy));
     }
 
-    private static void drawGroundGrid(Graphics2D g2, int cx, int cy,
-                                       double cyaw, double syaw, double cpitch, double spitch) {
+    private void drawGroundGrid(Graphics2D g2, int cx, int cy,
+                                double cyaw, double syaw, double cpitch, double spitch) {
         // 在 x-y 平面上畫一個網格（z=0），透過投影製造 3D 感
         g2.setStroke(new BasicStroke(1f));
         g2.setColor(new Color(0, 0, 0, 30));
@@ -136,8 +156,8 @@ public class ConicalSpiral3D extends JPanel {
         }
     }
 
-    private static Point projHelper(int cx, int cy, double x, double y, double z,
-                                    double cyaw, double syaw, double cpitch, double spitch) {
+    private Point projHelper(int cx, int cy, double x, double y, double z,
+                             double cyaw, double syaw, double cpitch, double spitch) {
         // 只用於地面格線，不需要深度著色，複製簡化的投影（與 project3D 保持一致）
         double x1 =  cyaw * x + syaw * z;
         double y1 =  y;
@@ -147,11 +167,11 @@ public class ConicalSpiral3D extends JPanel {
         double y2 =  cpitch * y1 - spitch * z1;
         double z2 =  spitch * y1 + cpitch * z1;
 
-        double denom = (DEPTH + z2);
+        double denom = (depth + z2);
         if (denom < 1) denom = 1;
 
-        double sx = cx + (FOV * x2) / denom;
-        double sy = cy - (FOV * y2) / denom;
+        double sx = cx + (fov * x2) / denom;
+        double sy = cy - (fov * y2) / denom;
         return new Point((int) Math.round(sx), (int) Math.round(sy));
     }
 
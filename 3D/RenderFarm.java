@@ -0,0 +1,604 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 單機多行程算圖農場：協調者啟動 N 個工作 JVM（{@link RenderWorker}），
+ * 透過本機 socket 派送 {@link ConicalSpiral3D} 的算圖工作；協調者把收到的 PNG 邊收邊寫進磁碟
+ * （工作行程端則是整張編碼在記憶體中再送出）。
+ * 每個工作行程有自己的 heap，大圖與 GC 停頓不會互相拖累。
+ *
+ * 排程：工作先依順序切成連續的幾段，分給各工作行程的佇列；自己的佇列做完就從
+ * 最長的別人佇列尾端偷（work stealing）。工作行程掛掉或回報錯誤時，該工作放回佇列重試
+ * （最多重試 --retries 次，也就是總共執行 --retries + 1 次），行程則重新啟動；協調者自己寫檔失敗時
+ * 同樣重試，但不重新啟動工作行程。結束時印出整體吞吐量與每個工作行程的使用率。
+ *
+ * 用法：
+ *   java RenderFarm [--workers 4] [--out farm-out] [--jobs jobs.txt | --sweep 40]
+ *                   [--worker-heap 512m] [--retries 3] [--timeout 300] [--crash-probability 0]
+ * 工作檔每行一個工作：「名稱 key=value ...」，key 為 size=WxH、turns、decay、dTheta、lift、
+ * yaw、pitch、fov、depth，未指定的沿用 ConicalSpiral3D 的預設值；# 開頭為註解。
+ * 名稱就是輸出檔名，不可含路徑分隔字元，也不可為 . 或 ..。
+ */
+public class RenderFarm {
+
+    static final byte MSG_SHUTDOWN = 0, MSG_JOB = 1;
+    static final byte MSG_RESULT = 1, MSG_ERROR = 2;
+
+    private static final int MAX_RESTARTS_PER_WORKER = 5;
+    private static final int CONNECT_TIMEOUT_SECONDS = 30;
+
+    /** 一張圖的參數；也負責在 socket 上的編碼。 */
+    static final class Job {
+        final String name;
+        final int width, height;
+        final int turns;
+        final double decayPerTurn, dTheta, liftPerRad;
+        final double yawDeg, pitchDeg, fov, depth;
+
+        Job(String name, int width, int height, int turns, double decayPerTurn, double dTheta,
+            double liftPerRad, double yawDeg, double pitchDeg, double fov, double depth) {
+            // 名稱直接當成輸出檔名，不能跳到輸出目錄之外
+            if (name.isEmpty() || name.equals(".") || name.equals("..")
+                    || name.indexOf('/') >= 0 || name.indexOf('\\') >= 0 || name.indexOf(File.separatorChar) >= 0) {
+                throw new IllegalArgumentException("bad job name '" + name + "' (no path separators or ..)");
+            }
+            if (width <= 0 || height <= 0) throw new IllegalArgumentException(name + ": bad size " + width + "x" + height);
+            if (turns <= 0 || !(dTheta > 0)) throw new IllegalArgumentException(name + ": turns and dTheta must be positive");
+            this.name = name;
+            this.width = width;
+            this.height = height;
+            this.turns = turns;
+            this.decayPerTurn = decayPerTurn;
+            this.dTheta = dTheta;
+            this.liftPerRad = liftPerRad;
+            this.yawDeg = yawDeg;
+            this.pitchDeg = pitchDeg;
+            this.fov = fov;
+            this.depth = depth;
+        }
+
+        long pixels() { return (long) width * height; }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeUTF(name);
+            out.writeInt(width);
+            out.writeInt(height);
+            out.writeInt(turns);
+            out.writeDouble(decayPerTurn);
+            out.writeDouble(dTheta);
+            out.writeDouble(liftPerRad);
+            out.writeDouble(yawDeg);
+            out.writeDouble(pitchDeg);
+            out.writeDouble(fov);
+            out.writeDouble(depth);
+        }
+
+        static Job read(DataInputStream in) throws IOException {
+            return new Job(in.readUTF(), in.readInt(), in.readInt(), in.readInt(), in.readDouble(),
+                    in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble());
+        }
+
+        /** 解析工作檔的一行：「名稱 key=value ...」。 */
+        static Job parse(String line) {
+            String[] tokens = line.trim().split("\\s+");
+            int width = 1000, height = 800, turns = ConicalSpiral3D.TURNS;
+            double decay = ConicalSpiral3D.DECAY_PER_TURN, dTheta = ConicalSpiral3D.D_THETA;
+            double lift = ConicalSpiral3D.LIFT_PER_RAD, yaw = ConicalSpiral3D.YAW_DEG;
+            double pitch = ConicalSpiral3D.PITCH_DEG, fov = ConicalSpiral3D.FOV, depth = ConicalSpiral3D.DEPTH;
+            for (int i = 1; i < tokens.length; i++) {
+                String[] kv = tokens[i].split("=", 2);
+                if (kv.length != 2) throw new IllegalArgumentException("expected key=value: " + tokens[i]);
+                switch (kv[0]) {
+                    case "size": {
+                        String[] wh = kv[1].split("x");
+                        width = Integer.parseInt(wh[0]);
+                        height = Integer.parseInt(wh[1]);
+                        break;
+                    }
+                    case "turns":  turns = Integer.parseInt(kv[1]); break;
+                    case "decay":  decay = Double.parseDouble(kv[1]); break;
+                    case "dTheta": dTheta = Double.parseDouble(kv[1]); break;
+                    case "lift":   lift = Double.parseDouble(kv[1]); break;
+                    case "yaw":    yaw = Double.parseDouble(kv[1]); break;
+                    case "pitch":  pitch = Double.parseDouble(kv[1]); break;
+                    case "fov":    fov = Double.parseDouble(kv[1]); break;
+                    case "depth":  depth = Double.parseDouble(kv[1]); break;
+                    default: throw new IllegalArgumentException("unknown key: " + kv[0]);
+                }
+            }
+            return new Job(tokens[0], width, height, turns, decay, dTheta, lift, yaw, pitch, fov, depth);
+        }
+    }
+
+    /** 佇列中的一項工作與已失敗次數。 */
+    private static final class Task {
+        final int id;
+        final Job job;
+        int attempts;
+        String lastError;
+
+        Task(int id, Job job) {
+            this.id = id;
+            this.job = job;
+        }
+    }
+
+    /** 一個工作行程的位置：自己的佇列、目前的行程與連線、統計。 */
+    private final class Worker {
+        final int slot;
+        final Deque<Task> queue = new ArrayDeque<>();
+        Process process;
+        Socket socket;
+        DataInputStream in;
+        DataOutputStream out;
+        boolean retired;
+
+        int jobs, stolen, restarts;
+        long busyNanos, renderNanos, bytes;
+
+        Worker(int slot) {
+            this.slot = slot;
+        }
+
+        void ensureRunning() throws IOException {
+            if (socket != null) return;
+            if (process != null) restarts++;
+            CompletableFuture<Socket> connected = new CompletableFuture<>();
+            pendingConnections.put(slot, connected);
+            List<String> cmd = new ArrayList<>();
+            cmd.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+            if (workerHeap != null) cmd.add("-Xmx" + workerHeap);
+            cmd.add("-Djava.awt.headless=true");
+            cmd.add("-cp");
+            cmd.add(System.getProperty("java.class.path"));
+            cmd.add("RenderWorker");
+            cmd.add(String.valueOf(server.getLocalPort()));
+            cmd.add(String.valueOf(slot));
+            cmd.add(String.valueOf(crashProbability));
+            process = new ProcessBuilder(cmd)
+                    .redirectOutput(ProcessBuilder.Redirect.INHERIT)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+            try {
+                socket = connected.get(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted while starting worker " + slot, e);
+            } catch (ExecutionException | TimeoutException e) {
+                throw new IOException("worker " + slot + " did not connect", e);
+            } finally {
+                pendingConnections.remove(slot);
+            }
+            socket.setSoTimeout((int) Math.min(Integer.MAX_VALUE, jobTimeoutSeconds * 1000L));
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        /** 連線或行程出問題：強制結束，下一個工作會重新啟動。 */
+        void kill() {
+            closeQuietly();
+            if (process != null) process.destroyForcibly();
+        }
+
+        void shutdown() {
+            // 連線可能只建立了一半（socket 有了、串流還沒建立）
+            if (out != null) {
+                try {
+                    out.writeByte(MSG_SHUTDOWN);
+                    out.flush();
+                } catch (IOException ignored) {
+                    // 行程已經不在了
+                }
+            }
+            closeQuietly();
+            if (process != null) {
+                try {
+                    if (!process.waitFor(5, TimeUnit.SECONDS)) process.destroyForcibly();
+                } catch (InterruptedException e) {
+                    process.destroyForcibly();
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                if (socket != null) socket.close();
+            } catch (IOException ignored) {
+            }
+            socket = null;
+            in = null;
+            out = null;
+        }
+    }
+
+    /** 工作行程回報的錯誤（行程本身仍正常）。 */
+    private static final class RemoteError extends Exception {
+        RemoteError(String message) { super(message); }
+    }
+
+    /** 協調者這端寫檔失敗（開檔、磁碟滿、改名）；結果已從連線讀完，工作行程不受影響。 */
+    private static final class LocalError extends Exception {
+        LocalError(String message) { super(message); }
+    }
+
+    private final File outDir;
+    private final String workerHeap;
+    private final int maxRetries;
+    private final int jobTimeoutSeconds;
+    private final double crashProbability;
+    private final Worker[] workers;
+    private final List<Task> failed = new ArrayList<>();
+    private final Map<Integer, CompletableFuture<Socket>> pendingConnections = new ConcurrentHashMap<>();
+    private ServerSocket server;
+    private int inFlight;
+    private int succeeded, retries;
+    private long bytesWritten, pixelsDone;
+
+    RenderFarm(int workerCount, File outDir, String workerHeap, int maxRetries, int jobTimeoutSeconds,
+               double crashProbability) {
+        this.outDir = outDir;
+        this.workerHeap = workerHeap;
+        this.maxRetries = maxRetries;
+        this.jobTimeoutSeconds = jobTimeoutSeconds;
+        this.crashProbability = crashProbability;
+        this.workers = new Worker[workerCount];
+        for (int i = 0; i < workerCount; i++) workers[i] = new Worker(i);
+    }
+
+    /** 執行所有工作；回傳失敗（重試用完）的工作數。 */
+    int run(List<Job> jobs) throws IOException, InterruptedException {
+        if (!outDir.isDirectory() && !outDir.mkdirs()) throw new IOException("cannot create " + outDir);
+        // 連續切段：同一段相鄰的參數通常成本相近，偷工作時從尾端拿，離擁有者正在做的最遠
+        int per = (jobs.size() + workers.length - 1) / workers.length;
+        for (int i = 0; i < jobs.size(); i++) {
+            workers[Math.min(i / Math.max(1, per), workers.length - 1)].queue.add(new Task(i, jobs.get(i)));
+        }
+
+        long start = System.nanoTime();
+        try (ServerSocket s = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            server = s;
+            Thread acceptor = new Thread(this::acceptLoop, "farm-acceptor");
+            acceptor.setDaemon(true);
+            acceptor.start();
+
+            List<Thread> threads = new ArrayList<>();
+            for (Worker w : workers) {
+                Thread t = new Thread(() -> drive(w), "farm-worker-" + w.slot);
+                t.start();
+                threads.add(t);
+            }
+            for (Thread t : threads) t.join();
+        }
+        // 所有工作行程都放棄了，還沒做的只能算失敗
+        for (Worker w : workers) {
+            for (Task t : w.queue) {
+                if (t.lastError == null) t.lastError = "no worker left";
+                failed.add(t);
+            }
+            w.queue.clear();
+        }
+        report(jobs.size(), System.nanoTime() - start);
+        return failed.size();
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Socket s = server.accept();
+                s.setTcpNoDelay(true);
+                int slot = new DataInputStream(s.getInputStream()).readInt();
+                CompletableFuture<Socket> f = pendingConnections.get(slot);
+                if (f == null || !f.complete(s)) s.close();
+            } catch (IOException e) {
+                if (!server.isClosed()) System.err.println("farm: accept failed: " + e);
+            }
+        }
+    }
+
+    /** 一個工作行程的派送迴圈（每個工作行程一條執行緒）。 */
+    private void drive(Worker w) {
+        try {
+            Task task;
+            while ((task = nextTask(w)) != null) {
+                long t0 = System.nanoTime();
+                try {
+                    w.ensureRunning();
+                    w.out.writeByte(MSG_JOB);
+                    w.out.writeInt(task.id);
+                    task.job.write(w.out);
+                    w.out.flush();
+                    receive(w, task);
+                    w.busyNanos += System.nanoTime() - t0;
+                    finished(task, null);
+                } catch (IOException e) {
+                    w.busyNanos += System.nanoTime() - t0;
+                    w.kill();
+                    finished(task, "worker " + w.slot + " lost: " + e);
+                    if (w.restarts >= MAX_RESTARTS_PER_WORKER) {
+                        System.err.println("farm: worker " + w.slot + " restarted too often, retiring it");
+                        break;
+                    }
+                } catch (RemoteError | LocalError e) {
+                    w.busyNanos += System.nanoTime() - t0;
+                    finished(task, e.getMessage());
+                } catch (RuntimeException e) {
+                    // 協調者自己的錯誤：工作照樣回到佇列給其他工作行程，這個位置不再使用
+                    w.busyNanos += System.nanoTime() - t0;
+                    w.kill();
+                    finished(task, "worker " + w.slot + " driver failed: " + e);
+                    System.err.println("farm: worker " + w.slot + " retired after internal error");
+                    break;
+                }
+            }
+        } finally {
+            synchronized (this) {
+                w.retired = true;
+                notifyAll();
+            }
+            w.shutdown();
+        }
+    }
+
+    /**
+     * 讀取一個回覆；成功時把 PNG 邊讀邊寫到暫存檔，完整收到後才改名。
+     * 寫檔失敗時仍把結果讀完再丟出 LocalError，連線保持在訊息邊界上，工作行程可以繼續使用；
+     * 只有連線本身的錯誤才丟出 IOException。
+     */
+    private void receive(Worker w, Task task) throws IOException, RemoteError, LocalError {
+        byte type = w.in.readByte();
+        int id = w.in.readInt();
+        if (id != task.id) throw new IOException("protocol error: expected job " + task.id + ", got " + id);
+        if (type == MSG_ERROR) throw new RemoteError(w.in.readUTF());
+        if (type != MSG_RESULT) throw new IOException("protocol error: message type " + type);
+
+        long renderNanos = w.in.readLong();
+        int length = w.in.readInt();
+        File target = new File(outDir, task.job.name + ".png");
+        File partial = new File(outDir, task.job.name + ".png.part");
+        IOException localError = null;
+        OutputStream file = null;
+        try {
+            file = new FileOutputStream(partial);
+        } catch (IOException e) {
+            localError = e;
+        }
+        try {
+            byte[] chunk = new byte[1 << 16];
+            int remaining = length;
+            while (remaining > 0) {
+                int n = w.in.read(chunk, 0, Math.min(chunk.length, remaining));
+                if (n < 0) throw new IOException("worker closed connection mid-result");
+                remaining -= n;
+                if (localError != null) continue; // 只讀不寫，把這個結果消化掉
+                try {
+                    file.write(chunk, 0, n);
+                } catch (IOException e) {
+                    localError = e;
+                }
+            }
+        } catch (IOException e) {
+            closeQuietly(file);
+            if (file != null) partial.delete();
+            throw e;
+        }
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                if (localError == null) localError = e;
+            }
+        }
+        if (localError == null) {
+            try {
+                Files.move(partial.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                localError = e;
+            }
+        }
+        if (localError != null) {
+            if (file != null) partial.delete(); // 沒開成功的不是我們的檔案，不動它
+            throw new LocalError("cannot write " + target + ": " + localError);
+        }
+
+        w.jobs++;
+        w.renderNanos += renderNanos;
+        w.bytes += length;
+        synchronized (this) {
+            bytesWritten += length;
+            pixelsDone += task.job.pixels();
+        }
+    }
+
+    private static void closeQuietly(OutputStream s) {
+        if (s == null) return;
+        try {
+            s.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /** 先拿自己佇列的頭；空了就從最長的別人佇列尾端偷。沒有工作也沒有進行中的工作才結束。 */
+    private synchronized Task nextTask(Worker w) {
+        while (true) {
+            Task t = w.queue.pollFirst();
+            if (t == null) {
+                Worker victim = null;
+                for (Worker other : workers) {
+                    if (other != w && !other.queue.isEmpty()
+                            && (victim == null || other.queue.size() > victim.queue.size())) {
+                        victim = other;
+                    }
+                }
+                if (victim != null) {
+                    t = victim.queue.pollLast();
+                    w.stolen++;
+                }
+            }
+            if (t != null) {
+                inFlight++;
+                return t;
+            }
+            // 進行中的工作可能失敗回到佇列，等它們結束
+            if (inFlight == 0) return null;
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+    }
+
+    /** error 為 null 表示成功；否則重試，次數用完就記為失敗。 */
+    private synchronized void finished(Task task, String error) {
+        inFlight--;
+        if (error == null) {
+            succeeded++;
+        } else {
+            task.attempts++;
+            task.lastError = error;
+            System.err.println("farm: " + task.job.name + " attempt " + task.attempts + " failed: " + error);
+            if (task.attempts > maxRetries) {
+                failed.add(task);
+            } else {
+                retries++;
+                // 放回還在運作的工作行程佇列頭，盡快重試
+                Worker target = null;
+                for (Worker w : workers) {
+                    if (!w.retired && (target == null || w.queue.size() < target.queue.size())) target = w;
+                }
+                (target != null ? target : workers[0]).queue.addFirst(task);
+            }
+        }
+        notifyAll();
+    }
+
+    private void report(int total, long wallNanos) {
+        double wall = wallNanos / 1e9;
+        int done = succeeded;
+        System.out.printf(Locale.ROOT, "farm: %d workers, %d/%d jobs in %.2f s  %.2f jobs/s  %.1f Mpx/s  %.1f MB written to %s%n",
+                workers.length, done, total, wall, done / wall, pixelsDone / 1e6 / wall, bytesWritten / 1e6, outDir);
+        int restarts = 0;
+        for (Worker w : workers) restarts += w.restarts;
+        System.out.printf(Locale.ROOT, "      retries %d, worker restarts %d, failed jobs %d%n", retries, restarts, failed.size());
+        System.out.printf(Locale.ROOT, "%6s %6s %7s %9s %8s %9s %6s%n",
+                "worker", "jobs", "stolen", "restarts", "busy s", "render s", "util");
+        for (Worker w : workers) {
+            System.out.printf(Locale.ROOT, "%6d %6d %7d %9d %8.2f %9.2f %5.0f%%%n",
+                    w.slot, w.jobs, w.stolen, w.restarts, w.busyNanos / 1e9, w.renderNanos / 1e9,
+                    100.0 * w.busyNanos / wallNanos);
+        }
+        for (Task t : failed) System.err.println("farm: FAILED " + t.job.name + ": " + t.lastError);
+    }
+
+    /** 預設的參數掃描：一般大小的畫廊圖，每 8 張夾一張大海報，讓各段成本不均。 */
+    static List<Job> sweep(int count) {
+        List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            double t = count > 1 ? i / (double) (count - 1) : 0;
+            boolean poster = i % 8 == 7;
+            jobs.add(new Job(String.format(Locale.ROOT, "sweep_%03d", i),
+                    poster ? 4000 : 1000, poster ? 3200 : 800,
+                    ConicalSpiral3D.TURNS + (i % 3),
+                    0.65 + 0.25 * t, poster ? 0.002 : ConicalSpiral3D.D_THETA, ConicalSpiral3D.LIFT_PER_RAD,
+                    -60 + 120 * t, ConicalSpiral3D.PITCH_DEG, poster ? 3400 : ConicalSpiral3D.FOV,
+                    ConicalSpiral3D.DEPTH));
+        }
+        return jobs;
+    }
+
+    static List<Job> readJobs(File file) throws IOException {
+        List<Job> jobs = new ArrayList<>();
+        try (BufferedReader r = new BufferedReader(new FileReader(file))) {
+            String line;
+            int lineNo = 0;
+            while ((line = r.readLine()) != null) {
+                lineNo++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                try {
+                    jobs.add(Job.parse(line));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(file + ":" + lineNo + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return jobs;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int workerCount = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        File out = new File("farm-out");
+        File jobsFile = null;
+        int sweep = 40;
+        String heap = null;
+        int retries = 3, timeout = 300;
+        double crash = 0;
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            try {
+                switch (args[i]) {
+                    case "--workers":           workerCount = Integer.parseInt(args[++i]); break;
+                    case "--out":               out = new File(args[++i]); break;
+                    case "--jobs":              jobsFile = new File(args[++i]); break;
+                    case "--sweep":             sweep = Integer.parseInt(args[++i]); break;
+                    case "--worker-heap":       heap = args[++i]; break;
+                    case "--retries":           retries = Integer.parseInt(args[++i]); break;
+                    case "--timeout":           timeout = Integer.parseInt(args[++i]); break;
+                    case "--crash-probability": crash = Double.parseDouble(args[++i]); break;
+                    default:
+                        usage("unknown option: " + args[i]);
+                }
+            } catch (ArrayIndexOutOfBoundsException e) {
+                usage(option + ": missing value");
+            } catch (IllegalArgumentException e) {
+                usage(option + ": " + e.getMessage());
+            }
+        }
+        if (workerCount < 1) usage("--workers must be >= 1");
+        if (sweep < 1) usage("--sweep must be >= 1");
+        if (retries < 0) usage("--retries must be >= 0");
+        if (timeout < 1) usage("--timeout must be >= 1 (seconds)");
+        if (!(crash >= 0 && crash <= 1)) usage("--crash-probability must be between 0 and 1");
+        List<Job> jobs = null;
+        try {
+            jobs = jobsFile != null ? readJobs(jobsFile) : sweep(sweep);
+        } catch (IOException e) {
+            usage(e.getMessage());
+        }
+        RenderFarm farm = new RenderFarm(workerCount, out, heap, retries, timeout, crash);
+        System.exit(farm.run(jobs) == 0 ? 0 : 1);
+    }
+
+    private static void usage(String error) {
+        if (error != null) System.err.println(error);
+        System.err.println("usage: RenderFarm [--workers 4] [--out farm-out] [--jobs jobs.txt | --sweep 40] "
+                + "[--worker-heap 512m] [--retries 3] [--timeout 300] [--crash-probability 0]");
+        System.exit(2);
+    }
+}
@@ -0,0 +1,75 @@
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Random;
+
+/**
+ * 算圖農場的工作行程（由 {@link RenderFarm} 啟動，不需手動執行）。
+ * 連回協調者的本機埠，逐一接收工作、用 {@link ConicalSpiral3D} 畫進 BufferedImage，
+ * 把 PNG 位元組傳回；收到結束訊息或連線中斷就離開。
+ *
+ * 參數：port slot [crashProbability]；crashProbability &gt; 0 時會隨機在工作途中直接結束行程，
+ * 用來測試協調者的重試與重新啟動。
+ */
+public class RenderWorker {
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.parseInt(args[0]);
+        int slot = Integer.parseInt(args[1]);
+        double crashProbability = args.length > 2 ? Double.parseDouble(args[2]) : 0;
+        Random random = new Random();
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+            out.writeInt(slot);
+            out.flush();
+
+            ByteArrayOutputStream png = new ByteArrayOutputStream(1 << 20);
+            while (in.readByte() == RenderFarm.MSG_JOB) {
+                int id = in.readInt();
+                RenderFarm.Job job = RenderFarm.Job.read(in);
+                if (crashProbability > 0 && random.nextDouble() < crashProbability) {
+                    System.err.println("worker " + slot + ": simulated crash on " + job.name);
+                    System.exit(3);
+                }
+                try {
+                    long t0 = System.nanoTime();
+                    png.reset();
+                    ImageIO.write(render(job), "png", png);
+                    long renderNanos = System.nanoTime() - t0;
+                    out.writeByte(RenderFarm.MSG_RESULT);
+                    out.writeInt(id);
+                    out.writeLong(renderNanos);
+                    out.writeInt(png.size());
+                    png.writeTo(out);
+                } catch (RuntimeException | OutOfMemoryError e) {
+                    out.writeByte(RenderFarm.MSG_ERROR);
+                    out.writeInt(id);
+                    out.writeUTF(String.valueOf(e));
+                }
+                out.flush();
+            }
+        }
+    }
+
+    static BufferedImage render(RenderFarm.Job job) {
+        ConicalSpiral3D panel = new ConicalSpiral3D(job.turns, job.decayPerTurn, job.dTheta, job.liftPerRad,
+                job.yawDeg, job.pitchDeg, job.fov, job.depth);
+        panel.setSize(job.width, job.height);
+        BufferedImage image = new BufferedImage(job.width, job.height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = image.createGraphics();
+        panel.paint(g2);
+        g2.dispose();
+        return image;
+    }
+}
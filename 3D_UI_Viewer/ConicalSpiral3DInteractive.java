@@ -3,120 +3,290 @@ import javax.swing.event.ChangeListener;
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
 
 public class ConicalSpiral3DInteractive extends JFrame {
 
     public static void main(String[] args) {
+        StartupProfile.mark("main");
+        boolean fastStart = Boolean.getBoolean("spiral.fastStart") || Arrays.asList(args).contains("--fast-start");
+        // 在建立視窗前先檢查，-Dspiral.vertexLayout 拼錯時直接結束而不是留下一個空的 EDT
+        VertexBuffer.Layout.fromProperty("spiral.vertexLayout", VertexBuffer.Layout.FLOAT64);
         SwingUtilities.invokeLater(() -> {
-            ConicalSpiral3DInteractive ui = new ConicalSpiral3DInteractive();
+            ConicalSpiral3DInteractive ui = new ConicalSpiral3DInteractive(fastStart);
             ui.setVisible(true);
+            StartupProfile.mark("frame visible");
         });
     }
 
     private final SpiralPanel canvas;
-    private final JSlider turnsSlider, decaySlider, liftSlider, yawSlider, pitchSlider, endRatioSlider;
-    private final JCheckBox archCheck, autoRotateCheck;
-    private final JSlider dThetaSlider, fovSlider, depthSlider, speedSlider;
+    private final JSplitPane split;
+    private MultiViewCanvas multiView;
+    private Timer particleTimer;
+
+    // 補間動畫：A、B 兩組參數；未設定時用目前參數
+    private static final int MORPH_SECONDS = 2;
+    private SpiralParams morphA, morphB;
+    private MorphPlayer morphPlayer;
+    private ControlPanel controlPanel;
     private Timer rotTimer;
 
+    // 所有輸入先進參數模型，每張畫面最多 commit 一次（約 60 FPS）
+    private static final int FRAME_MS = 16;
+    private final ParamModel model;
+    private final Timer frameTimer;
+    private long lastFrameMs;
+
+    // 與 SpiralParams.CONTROL_NAMES 同順序的控制項
+    private JComponent[] controlComponents;
+    private boolean syncingSliders; // 程式同步滑桿顯示時為 true，監聽器直接略過
+    private InputSession.Recorder recorder;
+
     public ConicalSpiral3DInteractive() {
+        this(false);
+    }
+
+    /**
+     * @param fastStart 先顯示低細緻度的第一張畫面，畫完後才建立右側控制面板
+     */
+    public ConicalSpiral3DInteractive(boolean fastStart) {
         super("3D Conical Spiral · Animation + Mouse Drag");
         setDefaultCloseOperation(EXIT_ON_CLOSE);
         this.canvas = new SpiralPanel();
+        this.model = new ParamModel(canvas.getParams());
+        this.frameTimer = new Timer(FRAME_MS, e -> commitFrame());
+        frameTimer.setRepeats(false);
+        model.setOnDirty(this::scheduleFrame);
+
+        JComponent right;
+        if (fastStart) {
+            // 先放一個等寬的空面板佔位，第一張畫面完成後再換成真正的控制項
+            right = new JPanel();
+            right.setPreferredSize(new Dimension(300, 0));
+            canvas.startWithDraft(this::installControls);
+        } else {
+            right = buildControls();
+        }
 
-        // 右側控制面板
-        JPanel controls = new JPanel();
-        controls.setBorder(BorderFactory.createEmptyBorder(10,10,10,10));
-        controls.setLayout(new BoxLayout(controls, BoxLayout.Y_AXIS));
-
-        archCheck = new JCheckBox("Archimedean (線性縮小半徑)");
-        archCheck.setSelected(false);
-
-        turnsSlider = labeledSlider("圈數 (turns)", 1, 12, canvas.getTurns());
-        decaySlider = labeledSlider("每圈縮小比例 decay/turn (%)", 50, 95, (int)Math.round(canvas.getDecayPerTurn()*100));
-        endRatioSlider = labeledSlider("Archimedean 終端半徑比例 (%)", 2, 30, 8);
-        liftSlider = labeledSlider("每弧度上升高度 lift/rad (×0.1)", 0, 50, (int)Math.round(canvas.getLiftPerRad()*5));
-        yawSlider   = labeledSlider("Yaw (°)",   -120, 120, (int)Math.round(canvas.getYawDeg()));
-        pitchSlider = labeledSlider("Pitch (°)",  -20,  80, (int)Math.round(canvas.getPitchDeg()));
-        dThetaSlider = labeledSlider("細緻度 dTheta (×0.001)", 1, 30, 10);
-        fovSlider    = labeledSlider("FOV 焦距", 300, 1400, (int)Math.round(canvas.getFov()));
-        depthSlider  = labeledSlider("Depth 偏移", 100, 900, (int)Math.round(canvas.getDepth()));
-
-        // 動畫控制
-        autoRotateCheck = new JCheckBox("自動旋轉");
-        speedSlider = labeledSlider("旋轉速度 (度/秒)", -90, 90, 20); // 負值 = 反向
-
-        JLabel hint = new JLabel("<html><body style='width:240px'>滑鼠操作：<br/>" +
-                "・拖曳畫布：改變 Yaw/Pitch<br/>" +
-                "・滾輪：縮放 FOV（遠近感）<br/>" +
-                "提示：dTheta 越小越平滑但較耗效能</body></html>");
-        hint.setAlignmentX(Component.LEFT_ALIGNMENT);
-
-        // 逐項加入
-        controls.add(archCheck);
-        controls.add(Box.createVerticalStrut(8));
-        controls.add(turnsSlider);
-        controls.add(decaySlider);
-        controls.add(endRatioSlider);
-        controls.add(liftSlider);
-        controls.add(Box.createVerticalStrut(8));
-        controls.add(yawSlider);
-        controls.add(pitchSlider);
-        controls.add(Box.createVerticalStrut(8));
-        controls.add(dThetaSlider);
-        controls.add(fovSlider);
-        controls.add(depthSlider);
-        controls.add(Box.createVerticalStrut(8));
-        controls.add(autoRotateCheck);
-        controls.add(speedSlider);
-        controls.add(Box.createVerticalStrut(8));
-        controls.add(hint);
-
-        // 綁定變更事件
-        ChangeListener repaintOnChange = e -> {
-            canvas.setArchimedean(archCheck.isSelected());
-            canvas.setTurns(turnsSlider.getValue());
-            canvas.setDecayPerTurn(decaySlider.getValue() / 100.0);
-            canvas.setEndRatio(endRatioSlider.getValue() / 100.0);
-            canvas.setLiftPerRad(liftSlider.getValue() / 10.0);
-            canvas.setYawDeg(yawSlider.getValue());
-            canvas.setPitchDeg(pitchSlider.getValue());
-            canvas.setDTheta(dThetaSlider.getValue() / 1000.0);
-            canvas.setFov(fovSlider.getValue());
-            canvas.setDepth(depthSlider.getValue());
-            canvas.repaint();
-        };
+        split = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, canvas, right);
+        split.setResizeWeight(1.0);
+        setContentPane(split);
+        setSize(1200, 820);
+        setLocationRelativeTo(null);
+        StartupProfile.mark("frame constructed");
+    }
+
+    private void installControls() {
+        int divider = split.getDividerLocation();
+        split.setRightComponent(buildControls());
+        split.setDividerLocation(divider);
+        StartupProfile.mark("controls ready");
+    }
 
-        archCheck.addChangeListener(repaintOnChange);
-        for (JSlider s : new JSlider[]{turnsSlider, decaySlider, endRatioSlider, liftSlider, yawSlider, pitchSlider, dThetaSlider, fovSlider, depthSlider}) {
-            s.addChangeListener(repaintOnChange);
+    private JPanel buildControls() {
+        ControlPanel controls = new ControlPanel(canvas);
+        controlPanel = controls;
+
+        // 綁定變更事件：控制項只把值交給參數模型，由下一張畫面統一套用
+        controlComponents = new JComponent[]{controls.archCheck, controls.turnsSlider, controls.decaySlider,
+                controls.endRatioSlider, controls.liftSlider, controls.yawSlider, controls.pitchSlider,
+                controls.dThetaSlider, controls.fovSlider, controls.depthSlider, controls.meshCheck,
+                controls.sidesSlider, controls.radiusSlider};
+        for (int i = 0; i < controlComponents.length; i++) {
+            int index = i;
+            JComponent c = controlComponents[i];
+            ChangeListener onChange = e -> {
+                if (syncingSliders) return;
+                int value = controlValue(c);
+                if (recorder != null) recorder.control(index, value);
+                model.control(SpiralParams.CONTROL_NAMES[index], value);
+            };
+            if (c instanceof JSlider) ((JSlider) c).addChangeListener(onChange);
+            else ((AbstractButton) c).addChangeListener(onChange);
         }
 
         // 自動旋轉 Timer（約 60 FPS）
         rotTimer = new Timer(16, evt -> {
-            double degPerSec = speedSlider.getValue();
-            double deltaDeg = degPerSec * (16.0 / 1000.0);
-            canvas.setYawDeg(canvas.getYawDeg() + deltaDeg);
-            yawSlider.setValue((int)Math.round(canvas.getYawDeg()));
-            canvas.repaint();
+            double degPerSec = controls.speedSlider.getValue();
+            // 增量先取整成錄製檔的定點數，重播時套用的才會是完全相同的值
+            int units = InputSession.rotateUnits(degPerSec * (16.0 / 1000.0));
+            model.rotateYaw(units * InputSession.ROTATE_UNIT);
+            if (recorder != null) recorder.rotate(units);
         });
 
-        autoRotateCheck.addActionListener(e -> {
-            if (autoRotateCheck.isSelected()) {
+        controls.autoRotateCheck.addActionListener(e -> {
+            if (controls.autoRotateCheck.isSelected()) {
                 rotTimer.start();
             } else {
                 rotTimer.stop();
             }
         });
 
-        // 畫布滑鼠互動
-        canvas.enableMouseControl(yawSlider, pitchSlider, fovSlider);
+        // 畫布滑鼠互動（拖曳調整視角、滾輪縮放 FOV）；錄製中時先記錄再套用，事件順序與實際處理順序一致
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override public void mousePressed(MouseEvent e) {
+                if (recorder != null) recorder.press(e.getX(), e.getY());
+                model.press(e.getX(), e.getY());
+                canvas.requestFocusInWindow();
+            }
+            @Override public void mouseDragged(MouseEvent e) {
+                if (recorder != null) recorder.drag(e.getX(), e.getY());
+                model.drag(e.getX(), e.getY());
+            }
+            @Override public void mouseReleased(MouseEvent e) {
+                if (recorder != null) recorder.release();
+                model.release();
+            }
+            @Override public void mouseWheelMoved(MouseWheelEvent e) {
+                if (recorder != null) recorder.wheel(e.getPreciseWheelRotation());
+                model.wheel(e.getPreciseWheelRotation());
+            }
+        };
+        canvas.addMouseListener(mouse);
+        canvas.addMouseMotionListener(mouse);
+        canvas.addMouseWheelListener(mouse);
+        canvas.setFocusable(true);
+
+        controls.multiViewCheck.addActionListener(e -> setMultiView(controls.multiViewCheck.isSelected()));
+
+        // 粒子開著時每張畫面都要重畫；參數快照仍由 frameTimer 負責
+        particleTimer = new Timer(FRAME_MS, e -> canvas.repaint());
+        controls.particlesCheck.addActionListener(e -> updateParticles());
+        controls.particleCountSlider.addChangeListener(e -> {
+            if (!controls.particleCountSlider.getValueIsAdjusting()) updateParticles();
+        });
+
+        controls.setAButton.addActionListener(e -> morphA = model.current());
+        controls.setBButton.addActionListener(e -> morphB = model.current());
+        controls.playMorphButton.addActionListener(e -> playMorph());
 
-        JSplitPane split = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, canvas, controls);
-        split.setResizeWeight(1.0);
-        setContentPane(split);
-        setSize(1200, 820);
-        setLocationRelativeTo(null);
+        String record = System.getProperty("spiral.record");
+        if (record != null) startRecording(new File(record));
+        return controls;
+    }
+
+    private static int controlValue(JComponent c) {
+        if (c instanceof JSlider) return ((JSlider) c).getValue();
+        return ((AbstractButton) c).isSelected() ? 1 : 0;
+    }
+
+    private int[] controlValues() {
+        SpiralParams p = model.current();
+        int[] values = new int[SpiralParams.CONTROL_NAMES.length];
+        for (int i = 0; i < values.length; i++) values[i] = p.controlValue(SpiralParams.CONTROL_NAMES[i]);
+        return values;
+    }
+
+    /** 有新輸入時排下一張畫面；與上一張至少間隔 FRAME_MS。 */
+    private void scheduleFrame() {
+        long wait = FRAME_MS - (System.currentTimeMillis() - lastFrameMs);
+        frameTimer.setInitialDelay((int) Math.max(0, wait));
+        frameTimer.restart();
+    }
+
+    /** 一張畫面：取出參數快照、同步滑桿顯示、重畫一次。 */
+    private void commitFrame() {
+        lastFrameMs = System.currentTimeMillis();
+        if (!model.commit()) return;
+        SpiralParams p = model.current();
+        canvas.setParams(p);
+        if (controlComponents != null) syncControls(p);
+        refreshViews();
+    }
+
+    /** 只更新控制項顯示，不觸發監聽器回頭改參數。 */
+    private void syncControls(SpiralParams p) {
+        syncingSliders = true;
+        try {
+            for (int i = 0; i < controlComponents.length; i++) {
+                int value = p.controlValue(SpiralParams.CONTROL_NAMES[i]);
+                JComponent c = controlComponents[i];
+                if (c instanceof JSlider) ((JSlider) c).setValue(value);
+                else ((AbstractButton) c).setSelected(value != 0);
+            }
+        } finally {
+            syncingSliders = false;
+        }
+    }
+
+    /** 錄製畫布上的滑鼠/滾輪與控制項變更，程式結束時寫出（-Dspiral.record=檔名）。 */
+    private void startRecording(File file) {
+        recorder = new InputSession.Recorder(file, canvas, SpiralParams.CONTROL_NAMES, this::controlValues);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                recorder.close();
+            } catch (IOException e) {
+                System.err.println("input recording failed: " + e);
+            }
+        }));
+    }
+
+    private void updateParticles() {
+        boolean on = controlPanel.particlesCheck.isSelected();
+        canvas.setParticleCount(on ? controlPanel.particleCountSlider.getValue() * 1000 : 0);
+        if (on) particleTimer.start();
+        else particleTimer.stop();
+        canvas.repaint();
+    }
+
+    private void setMultiView(boolean on) {
+        if (on && multiView == null) {
+            multiView = new MultiViewCanvas(canvas);
+            // 與主畫布共用同一組滑鼠操作（拖曳改視角、滾輪縮放）
+            for (MouseListener l : canvas.getMouseListeners()) multiView.addMouseListener(l);
+            for (MouseMotionListener l : canvas.getMouseMotionListeners()) multiView.addMouseMotionListener(l);
+            for (MouseWheelListener l : canvas.getMouseWheelListeners()) multiView.addMouseWheelListener(l);
+        }
+        setLeftView(on ? multiView : canvas);
+    }
+
+    /** 在目前畫布的位置播放 A → B，播完停在 B 並交回一般畫布。 */
+    private void playMorph() {
+        if (morphPlayer != null) return;
+        SpiralParams from = morphA != null ? morphA : model.current();
+        SpiralParams to = morphB != null ? morphB : model.current();
+        Component view = split.getLeftComponent();
+        MorphEngine.Easing easing = (MorphEngine.Easing) controlPanel.easingCombo.getSelectedItem();
+        MorphEngine engine = new MorphEngine(from, to, easing,
+                MORPH_SECONDS * MorphPlayer.FPS + 1, view.getWidth(), view.getHeight());
+        morphPlayer = new MorphPlayer(engine, () -> {
+            engine.close();
+            morphPlayer = null;
+            setLeftView(view);
+            model.set(to);
+            setEnabledDeep(controlPanel, true);
+            if (controlPanel.autoRotateCheck.isSelected()) rotTimer.start();
+        });
+        // 播放結束會把參數整組換成 B，期間的操作都會被蓋掉，因此先停用所有控制項與自動旋轉
+        setEnabledDeep(controlPanel, false);
+        rotTimer.stop();
+        setLeftView(morphPlayer);
+        try {
+            morphPlayer.start();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void setEnabledDeep(Component c, boolean enabled) {
+        c.setEnabled(enabled);
+        if (c instanceof Container) {
+            for (Component child : ((Container) c).getComponents()) setEnabledDeep(child, enabled);
+        }
+    }
+
+    private void setLeftView(Component view) {
+        int divider = split.getDividerLocation();
+        split.setLeftComponent(view);
+        split.setDividerLocation(divider);
+    }
+
+    private void refreshViews() {
+        canvas.repaint();
+        if (multiView != null && multiView.isShowing()) multiView.repaint();
     }
 
     private static JSlider labeledSlider(String title, int min, int max, int val) {
@@ -137,73 +307,175 @@ public class ConicalSpiral3DInteractive extends JFrame {
         return s;
     }
 
+    /**
+     * 右側控制面板：只負責建立元件與排版，監聽器由視窗綁定。
+     * StartupBench 也用它量測啟動時間，兩邊建立的是同一組控制項。
+     */
+    static final class ControlPanel extends JPanel {
+        final JCheckBox archCheck, meshCheck, particlesCheck, multiViewCheck, autoRotateCheck;
+        final JSlider turnsSlider, decaySlider, endRatioSlider, liftSlider, yawSlider, pitchSlider;
+        final JSlider dThetaSlider, fovSlider, depthSlider, sidesSlider, radiusSlider, particleCountSlider, speedSlider;
+        final JButton setAButton, setBButton, playMorphButton;
+        final JComboBox<MorphEngine.Easing> easingCombo;
+
+        ControlPanel(SpiralPanel canvas) {
+            setBorder(BorderFactory.createEmptyBorder(10,10,10,10));
+            setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
+
+            archCheck = new JCheckBox("Archimedean (線性縮小半徑)");
+            archCheck.setSelected(canvas.getParams().archimedean);
+
+            turnsSlider = labeledSlider("圈數 (turns)", 1, 12, canvas.getParams().controlValue("turns"));
+            decaySlider = labeledSlider("每圈縮小比例 decay/turn (%)", 50, 95, (int)Math.round(canvas.getDecayPerTurn()*100));
+            endRatioSlider = labeledSlider("Archimedean 終端半徑比例 (%)", 2, 30, canvas.getParams().controlValue("endRatio"));
+            liftSlider = labeledSlider("每弧度上升高度 lift/rad (×0.1)", 0, 50, (int)Math.round(canvas.getLiftPerRad()*10));
+            yawSlider   = labeledSlider("Yaw (°)",   -120, 120, (int)Math.round(canvas.getYawDeg()));
+            pitchSlider = labeledSlider("Pitch (°)",  -20,  80, (int)Math.round(canvas.getPitchDeg()));
+            dThetaSlider = labeledSlider("細緻度 dTheta (×0.001)", 1, 30, canvas.getParams().controlValue("dTheta"));
+            fovSlider    = labeledSlider("FOV 焦距", 300, 1400, (int)Math.round(canvas.getFov()));
+            depthSlider  = labeledSlider("Depth 偏移", 100, 900, (int)Math.round(canvas.getDepth()));
+
+            // 四視圖（上/前/側/自由），共用同一份幾何
+            multiViewCheck = new JCheckBox("四視圖（上/前/側/自由）");
+
+            // 管狀 / 緞帶網格（CPU 軟體光柵化、深度緩衝、Lambert 著色）
+            meshCheck = new JCheckBox("實體管狀網格（軟體光柵化）");
+            sidesSlider  = labeledSlider("截面邊數（2 = 緞帶）", 2, 12, canvas.getMeshSides());
+            radiusSlider = labeledSlider("管徑", 1, 20, (int)Math.round(canvas.getMeshRadius()));
+
+            // 發光粒子（沿弧長等速流動）
+            particlesCheck = new JCheckBox("發光粒子（等速流動）");
+            particleCountSlider = labeledSlider("粒子數量 (×1000)", 1, 20, 10);
+
+            // 動畫控制
+            autoRotateCheck = new JCheckBox("自動旋轉");
+            speedSlider = labeledSlider("旋轉速度 (度/秒)", -90, 90, 20); // 負值 = 反向
+
+            // 補間動畫（背景執行緒預先算下一張）
+            setAButton = new JButton("設為 A");
+            setBButton = new JButton("設為 B");
+            playMorphButton = new JButton("播放 A → B");
+            easingCombo = new JComboBox<>(MorphEngine.Easing.values());
+            easingCombo.setSelectedItem(MorphEngine.Easing.SMOOTHSTEP);
+            JPanel morphRow = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
+            morphRow.add(setAButton);
+            morphRow.add(setBButton);
+            morphRow.add(playMorphButton);
+            morphRow.setAlignmentX(Component.LEFT_ALIGNMENT);
+            easingCombo.setAlignmentX(Component.LEFT_ALIGNMENT);
+            easingCombo.setMaximumSize(easingCombo.getPreferredSize());
+
+            JLabel hint = new JLabel("<html><body style='width:240px'>滑鼠操作：<br/>" +
+                    "・拖曳畫布：改變 Yaw/Pitch<br/>" +
+                    "・滾輪：縮放 FOV（遠近感）<br/>" +
+                    "提示：dTheta 越小越平滑但較耗效能</body></html>");
+            hint.setAlignmentX(Component.LEFT_ALIGNMENT);
+
+            // 逐項加入
+            add(archCheck);
+            add(Box.createVerticalStrut(8));
+            add(turnsSlider);
+            add(decaySlider);
+            add(endRatioSlider);
+            add(liftSlider);
+            add(Box.createVerticalStrut(8));
+            add(yawSlider);
+            add(pitchSlider);
+            add(Box.createVerticalStrut(8));
+            add(dThetaSlider);
+            add(fovSlider);
+            add(depthSlider);
+            add(Box.createVerticalStrut(8));
+            add(meshCheck);
+            add(sidesSlider);
+            add(radiusSlider);
+            add(Box.createVerticalStrut(8));
+            add(particlesCheck);
+            add(particleCountSlider);
+            add(Box.createVerticalStrut(8));
+            add(multiViewCheck);
+            add(autoRotateCheck);
+            add(speedSlider);
+            add(Box.createVerticalStrut(8));
+            add(morphRow);
+            add(easingCombo);
+            add(Box.createVerticalStrut(8));
+            add(hint);
+        }
+    }
+
     // ===================== 畫布與數學 =====================
     static class SpiralPanel extends JPanel {
-        private int turns = 6;
-        private boolean archimedean = false;
-        private double decayPerTurn = 0.75;
-        private double endRatio = 0.08;   // r_end = r0*endRatio
-        private double liftPerRad = 2.0;
-        private double yawDeg = 35.0;
-        private double pitchDeg = 25.0;
-        private double dTheta = 0.01;
-        private double fov = 850.0;
-        private double depth = 300.0;
+        // 目前畫面參數；每張畫面只讀一次，畫到一半不會被輸入改掉
+        private SpiralParams params = SpiralParams.DEFAULTS;
+
+        // 頂點資料放在 heap 之外：world 由產生器填寫，screen 為投影結果
+        private final SpiralGeometry geometry =
+                new SpiralGeometry(VertexBuffer.Layout.fromProperty("spiral.vertexLayout", VertexBuffer.Layout.FLOAT64));
+        private final SpiralProjector projector = new SpiralProjector();
+        private final VertexBuffer screen = new VertexBuffer(VertexBuffer.Layout.FLOAT32, 4096);
+        private final Line2D.Double segment = new Line2D.Double();
+        private final Path2D.Float path = new Path2D.Float();
+
+        // 管狀網格
+        private final TubeMesh tubeMesh = new TubeMesh();
+        private final SoftwareRasterizer rasterizer = new SoftwareRasterizer();
+
+        // 沿螺旋流動的發光粒子；null 表示關閉
+        private ParticleSystem particles;
+
+        // 快速啟動：第一張畫面用低細緻度、不開反鋸齒，畫完再補一張完整畫質
+        private static final double DRAFT_D_THETA = 0.05;
+        private boolean draft;
+        private boolean firstFrameDone, fullFrameDone;
+        private Runnable afterDraft;
 
         SpiralPanel() {
             setBackground(Color.white);
         }
 
+        SpiralParams getParams() { return params; }
+        void setParams(SpiralParams p) { this.params = p; }
+
+        /** 開啟 count 顆發光粒子（0 = 關閉）；粒子依實際經過時間前進，需由呼叫端持續 repaint。 */
+        void setParticleCount(int count) {
+            int current = particles == null ? 0 : particles.count();
+            if (count != current) particles = count > 0 ? new ParticleSystem(count) : null;
+        }
+
+        ParticleSystem particles() { return particles; }
+
         // 對外 getters
-        public int getTurns() { return turns; }
-        public double getDecayPerTurn() { return decayPerTurn; }
-        public double getLiftPerRad() { return liftPerRad; }
-        public double getYawDeg() { return yawDeg; }
-        public double getPitchDeg() { return pitchDeg; }
-        public double getFov() { return fov; }
-        public double getDepth() { return depth; }
-
-        // 對外 setters
-        public void setTurns(int t) { this.turns = Math.max(1, t); }
-        public void setArchimedean(boolean b) { this.archimedean = b; }
-        public void setDecayPerTurn(double d) { this.decayPerTurn = clamp(d, 0.5, 0.98); }
-        public void setEndRatio(double r) { this.endRatio = clamp(r, 0.02, 0.5); }
-        public void setLiftPerRad(double l) { this.liftPerRad = clamp(l, 0, 8.0); }
-        public void setYawDeg(double d) { this.yawDeg = d; }
-        public void setPitchDeg(double d) { this.pitchDeg = clamp(d, -20, 80); }
-        public void setDTheta(double dt) { this.dTheta = clamp(dt, 0.001, 0.05); }
-        public void setFov(double f) { this.fov = clamp(f, 200, 2000); }
-        public void setDepth(double d) { this.depth = clamp(d, 50, 2000); }
-
-        // 啟用滑鼠控制（拖曳調整視角、滾輪縮放 FOV）
-        public void enableMouseControl(JSlider yawSlider, JSlider pitchSlider, JSlider fovSlider) {
-            MouseAdapter ma = new MouseAdapter() {
-                Point last;
-                @Override public void mousePressed(MouseEvent e) { last = e.getPoint(); requestFocusInWindow(); }
-                @Override public void mouseDragged(MouseEvent e) {
-                    if (last == null) { last = e.getPoint(); return; }
-                    int dx = e.getX() - last.x;
-                    int dy = e.getY() - last.y;
-                    setYawDeg(getYawDeg() + dx * 0.4);
-                    setPitchDeg(getPitchDeg() - dy * 0.4);
-                    if (yawSlider != null) yawSlider.setValue((int)Math.round(getYawDeg()));
-                    if (pitchSlider != null) pitchSlider.setValue((int)Math.round(getPitchDeg()));
-                    last = e.getPoint();
-                    repaint();
-                }
-                @Override public void mouseReleased(MouseEvent e) { last = null; }
-                @Override public void mouseWheelMoved(MouseWheelEvent e) {
-                    double step = 30.0;
-                    if (e.getPreciseWheelRotation() < 0) setFov(getFov() + step);
-                    else setFov(getFov() - step);
-                    if (fovSlider != null) fovSlider.setValue((int)Math.round(getFov()));
-                    repaint();
-                }
-            };
-            addMouseListener(ma);
-            addMouseMotionListener(ma);
-            addMouseWheelListener(ma);
-            setFocusable(true);
+        public double getTurns() { return params.turns; }
+        public double getDecayPerTurn() { return params.decayPerTurn; }
+        public double getLiftPerRad() { return params.liftPerRad; }
+        public double getYawDeg() { return params.yawDeg; }
+        public double getPitchDeg() { return params.pitchDeg; }
+        public double getFov() { return params.fov; }
+        public double getDepth() { return params.depth; }
+        public boolean isMeshMode() { return params.meshMode; }
+        public int getMeshSides() { return params.meshSides; }
+        public double getMeshRadius() { return params.meshRadius; }
+
+        // 對外 setters（單一參數；互動版的輸入改走 ParamModel，每張畫面整批套用）
+        public void setTurns(double t) { params = params.toBuilder().turns(t).build(); }
+        public void setArchimedean(boolean b) { params = params.toBuilder().archimedean(b).build(); }
+        public void setDecayPerTurn(double d) { params = params.toBuilder().decayPerTurn(d).build(); }
+        public void setEndRatio(double r) { params = params.toBuilder().endRatio(r).build(); }
+        public void setLiftPerRad(double l) { params = params.toBuilder().liftPerRad(l).build(); }
+        public void setYawDeg(double d) { params = params.toBuilder().yawDeg(d).build(); }
+        public void setPitchDeg(double d) { params = params.toBuilder().pitchDeg(d).build(); }
+        public void setDTheta(double dt) { params = params.toBuilder().dTheta(dt).build(); }
+        public void setFov(double f) { params = params.toBuilder().fov(f).build(); }
+        public void setDepth(double d) { params = params.toBuilder().depth(d).build(); }
+        public void setMeshMode(boolean b) { params = params.toBuilder().meshMode(b).build(); }
+        public void setMeshSides(int s) { params = params.toBuilder().meshSides(s).build(); }
+        public void setMeshRadius(double r) { params = params.toBuilder().meshRadius(r).build(); }
+
+        /** 第一張畫面以草稿畫質顯示，完成後執行 afterDraft 並重畫完整畫質。 */
+        void startWithDraft(Runnable afterDraft) {
+            this.draft = true;
+            this.afterDraft = afterDraft;
         }
 
         @Override public Dimension getPreferredSize() { return new Dimension(900, 800); }
@@ -211,140 +483,164 @@ public class ConicalSpiral3DInteractive extends JFrame {
         @Override protected void paintComponent(Graphics g) {
             super.paintComponent(g);
             Graphics2D g2 = (Graphics2D) g.create();
-            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            g2.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+            if (!draft) {
+                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g2.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+            }
 
             int cx = getWidth() / 2;
             int cy = getHeight() / 2 + 40;
 
+            SpiralParams p = params;
             double r0 = Math.min(getWidth(), getHeight()) * 0.38;
-            double twoPi = Math.PI * 2.0;
-            double thetaMax = turns * twoPi;
-
-            double yaw = Math.toRadians(yawDeg);
-            double pitch = Math.toRadians(pitchDeg);
-            double cyaw = Math.cos(yaw), syaw = Math.sin(yaw);
-            double cpitch = Math.cos(pitch), spitch = Math.sin(pitch);
+            projector.setCamera(cx, cy, p.yawDeg, p.pitchDeg, p.fov, p.depth);
+
+            if (p.meshMode && !draft) {
+                // 網格模式：格線與管子一起在軟體光柵化器中做深度測試
+                VertexBuffer world = worldVertices(p, r0, p.dTheta);
+                tubeMesh.update(geometry, p.meshSides, p.meshRadius);
+                g2.drawImage(rasterizer.render(tubeMesh, projector, getWidth(), getHeight()), 0, 0, null);
+                projector.project(world, screen);
+                drawEndpoints(g2, screen);
+                if (particles != null) particles.draw(g2, geometry, projector, getWidth(), getHeight());
+                g2.dispose();
+                frameCompleted();
+                return;
+            }
 
             // 地面格線
-            drawGroundGrid(g2, cx, cy, cyaw, syaw, cpitch, spitch, fov, depth);
-
-            // 初始點
-            double theta = 0.0;
-            double r = radiusAt(theta, r0, thetaMax);
-            double x = r * Math.cos(theta);
-            double y = r * Math.sin(theta);
-            double z = liftPerRad * theta;
-            PointExt pPrev = project3D(cx, cy, x, y, z, cyaw, syaw, cpitch, spitch, fov, depth);
-
-            for (theta = dTheta; theta <= thetaMax; theta += dTheta) {
-                r = radiusAt(theta, r0, thetaMax);
-                if (r <= 0) break;
-                x = r * Math.cos(theta);
-                y = r * Math.sin(theta);
-                z = liftPerRad * theta;
-
-                PointExt p = project3D(cx, cy, x, y, z, cyaw, syaw, cpitch, spitch, fov, depth);
-
-                float t = (float) clamp((p.zCam - 0) / 800.0, 0, 1);
-                float alpha = (float) (0.25 + 0.55 * (1 - t));
-                float gray  = (float) (0.25 + 0.65 * (1 - t));
-                float width = (float) (1.0 + 2.5 * (1 - t));
-
-                g2.setStroke(new BasicStroke(width, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-                g2.setColor(new Color(gray, gray, gray, alpha));
-                g2.draw(new Line2D.Double(pPrev.x, pPrev.y, p.x, p.y));
-
-                pPrev = p;
-            }
+            drawGroundGrid(g2, projector, segment);
 
-            // 起點與終點
-            g2.setColor(new Color(30, 80, 200, 200));
-            fillCircle(g2, project3D(cx, cy, r0, 0, 0, cyaw, syaw, cpitch, spitch, fov, depth), 5);
-            g2.setColor(new Color(200, 60, 30, 220));
-            fillCircle(g2, pPrev, 6);
+            // 世界座標只在參數改變時重算；每次重畫只做投影
+            double step = draft ? Math.max(p.dTheta, DRAFT_D_THETA) : p.dTheta;
+            projector.project(worldVertices(p, r0, step), screen);
+            drawSpiral(g2, screen, path);
+            if (particles != null && !draft) particles.draw(g2, geometry, projector, getWidth(), getHeight());
 
             g2.dispose();
+            frameCompleted();
         }
 
-        private double radiusAt(double theta, double r0, double thetaMax) {
-            if (!archimedean) {
-                // 對數螺旋
-                double twoPi = Math.PI * 2.0;
-                return r0 * Math.pow(decayPerTurn, theta / twoPi);
-            } else {
-                // 阿基米德：線性縮小至 r_end
-                double rEnd = r0 * endRatio;
-                double k = (r0 - rEnd) / thetaMax;
-                return Math.max(rEnd, r0 - k * theta);
+        private void frameCompleted() {
+            if (!firstFrameDone) {
+                firstFrameDone = true;
+                StartupProfile.mark(draft ? "first frame (draft)" : "first frame");
+            }
+            if (draft) {
+                draft = false;
+                Runnable r = afterDraft;
+                afterDraft = null;
+                // 讓第一張畫面先上屏，再建立控制項並補畫完整畫質
+                SwingUtilities.invokeLater(() -> {
+                    if (r != null) r.run();
+                    repaint();
+                });
+            } else if (!fullFrameDone) {
+                fullFrameDone = true;
+                StartupProfile.fullFrameDone();
             }
         }
 
-        private static class PointExt extends Point {
-            final double zCam;
-            PointExt(int x, int y, double zCam) { super(x, y); this.zCam = zCam; }
+        private static final int DEPTH_LEVELS = 256;
+        private static final BasicStroke[] DEPTH_STROKES = new BasicStroke[DEPTH_LEVELS];
+        private static final Color[] DEPTH_COLORS = new Color[DEPTH_LEVELS];
+        static {
+            for (int level = 0; level < DEPTH_LEVELS; level++) {
+                float t = level / (float) (DEPTH_LEVELS - 1);
+                float alpha = (float) (0.25 + 0.55 * (1 - t));
+                float gray  = (float) (0.25 + 0.65 * (1 - t));
+                float width = (float) (1.0 + 2.5 * (1 - t));
+                DEPTH_STROKES[level] = new BasicStroke(width, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+                DEPTH_COLORS[level] = new Color(gray, gray, gray, alpha);
+            }
         }
 
-        private static PointExt project3D(int cx, int cy, double x, double y, double z,
-                                          double cyaw, double syaw, double cpitch, double spitch,
-                                          double fov, double depth) {
-            // Yaw
-            double x1 =  cyaw * x + syaw * z;
-            double y1 =  y;
-            double z1 = -syaw * x + cyaw * z;
-            // Pitch
-            double x2 = x1;
-            double y2 =  cpitch * y1 - spitch * z1;
-            double z2 =  spitch * y1 + cpitch * z1;
-
-            double denom = (depth + z2);
-            if (denom < 1) denom = 1;
-
-            double sx = cx + (fov * x2) / denom;
-            double sy = cy - (fov * y2) / denom;
-
-            return new PointExt((int)Math.round(sx), (int)Math.round(sy), z2);
+        private static int depthLevel(double zCam) {
+            double t = clamp((zCam - 0) / 800.0, 0, 1);
+            return (int) Math.round(t * (DEPTH_LEVELS - 1));
         }
 
-        private static void drawGroundGrid(Graphics2D g2, int cx, int cy,
-                                           double cyaw, double syaw, double cpitch, double spitch,
-                                           double fov, double depth) {
-            g2.setStroke(new BasicStroke(1f));
-            g2.setColor(new Color(0, 0, 0, 26));
-            int half = 600;
-            int step = 60;
-            for (int i = -half; i <= half; i += step) {
-                Point p1 = projHelper(cx, cy, -half, i, 0, cyaw, syaw, cpitch, spitch, fov, depth);
-                Point p2 = projHelper(cx, cy,  half, i, 0, cyaw, syaw, cpitch, spitch, fov, depth);
-                g2.draw(new Line2D.Double(p1.x, p1.y, p2.x, p2.y));
+        /** 依目前參數取得（必要時重算）共用的世界座標頂點。 */
+        VertexBuffer worldVertices(double r0) {
+            SpiralParams p = params;
+            return worldVertices(p, r0, p.dTheta);
+        }
 
-                Point p3 = projHelper(cx, cy, i, -half, 0, cyaw, syaw, cpitch, spitch, fov, depth);
-                Point p4 = projHelper(cx, cy, i,  half, 0, cyaw, syaw, cpitch, spitch, fov, depth);
-                g2.draw(new Line2D.Double(p3.x, p3.y, p4.x, p4.y));
+        private VertexBuffer worldVertices(SpiralParams p, double r0, double step) {
+            geometry.update(p.turns, p.archimedean, p.decayPerTurn, p.endRatio, p.liftPerRad, step, r0);
+            return geometry.vertices();
+        }
+
+        /** 畫出已投影的螺旋線與起點/終點。 */
+        static void drawSpiral(Graphics2D g2, VertexBuffer screen, Path2D.Float run) {
+            int n = screen.size();
+            // 依相機 Z 深度量化成固定階數，筆刷與顏色重複使用；
+            // 同一階的連續線段併成一條路徑一次畫完，減少狀態切換與描邊次數
+            // 投影座標已取整，落在同一像素的連續頂點直接略過
+            int runLevel = -1;
+            double lastX = n > 0 ? screen.x(0) : 0, lastY = n > 0 ? screen.y(0) : 0;
+            for (int i = 1; i < n; i++) {
+                double x = screen.x(i), y = screen.y(i);
+                if (x == lastX && y == lastY) continue;
+                int level = depthLevel(screen.z(i));
+                if (level != runLevel) {
+                    strokeRun(g2, run, runLevel);
+                    runLevel = level;
+                    run.reset();
+                    run.moveTo(lastX, lastY);
+                }
+                run.lineTo(x, y);
+                lastX = x;
+                lastY = y;
             }
+            strokeRun(g2, run, runLevel);
+            drawEndpoints(g2, screen);
         }
 
-        private static Point projHelper(int cx, int cy, double x, double y, double z,
-                                        double cyaw, double syaw, double cpitch, double spitch,
-                                        double fov, double depth) {
-            double x1 =  cyaw * x + syaw * z;
-            double y1 =  y;
-            double z1 = -syaw * x + cyaw * z;
+        /** 起點與終點 */
+        private static void drawEndpoints(Graphics2D g2, VertexBuffer screen) {
+            int n = screen.size();
+            g2.setColor(START_COLOR);
+            fillCircle(g2, screen, 0, 5);
+            g2.setColor(END_COLOR);
+            fillCircle(g2, screen, n - 1, 6);
+        }
 
-            double x2 = x1;
-            double y2 =  cpitch * y1 - spitch * z1;
-            double z2 =  spitch * y1 + cpitch * z1;
+        private static void strokeRun(Graphics2D g2, Path2D.Float run, int level) {
+            if (level < 0) return;
+            g2.setStroke(DEPTH_STROKES[level]);
+            g2.setColor(DEPTH_COLORS[level]);
+            g2.draw(run);
+        }
 
-            double denom = (depth + z2);
-            if (denom < 1) denom = 1;
+        private static final Color START_COLOR = new Color(30, 80, 200, 200);
+        private static final Color END_COLOR = new Color(200, 60, 30, 220);
+        private static final Color GRID_COLOR = new Color(0, 0, 0, 26);
+        private static final BasicStroke GRID_STROKE = new BasicStroke(1f);
 
-            double sx = cx + (fov * x2) / denom;
-            double sy = cy - (fov * y2) / denom;
-            return new Point((int)Math.round(sx), (int)Math.round(sy));
+        static void drawGroundGrid(Graphics2D g2, SpiralProjector projector, Line2D.Double seg) {
+            g2.setStroke(GRID_STROKE);
+            g2.setColor(GRID_COLOR);
+            int half = 600;
+            int step = 60;
+            double[] p = new double[3], q = new double[3];
+            for (int i = -half; i <= half; i += step) {
+                projector.projectPoint(-half, i, 0, p);
+                projector.projectPoint( half, i, 0, q);
+                seg.setLine(Math.round(p[0]), Math.round(p[1]), Math.round(q[0]), Math.round(q[1]));
+                g2.draw(seg);
+
+                projector.projectPoint(i, -half, 0, p);
+                projector.projectPoint(i,  half, 0, q);
+                seg.setLine(Math.round(p[0]), Math.round(p[1]), Math.round(q[0]), Math.round(q[1]));
+                g2.draw(seg);
+            }
         }
 
-        private static void fillCircle(Graphics2D g2, Point p, int r) {
-            g2.fillOval(p.x - r, p.y - r, r * 2, r * 2);
+        private static void fillCircle(Graphics2D g2, VertexBuffer screen, int i, int r) {
+            if (i < 0) return;
+            int x = (int) screen.x(i), y = (int) screen.y(i);
+            g2.fillOval(x - r, y - r, r * 2, r * 2);
         }
 
         private static double clamp(double v, double lo, double hi) {
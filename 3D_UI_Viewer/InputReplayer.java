@@ -0,0 +1,156 @@
+import javax.swing.SwingUtilities;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 無頭重播錄製的輸入（見 {@link InputSession}），量測輸入到畫面完成的延遲與吞吐量。
+ *
+ * 用法：java -Djava.awt.headless=true InputReplayer session.bin [speed]
+ *   speed = 1 照原始節奏、2 兩倍速……；0 表示不等待，每筆輸入畫一張，量的是純處理能力。
+ *
+ * 輸入與互動版一樣先進 {@link ParamModel}，每張畫面 commit 一次。
+ * 注意：重播直接呼叫 ParamModel，不經過 Swing 的事件分派與 JSlider → ChangeListener 路徑，
+ * 也不更新滑桿顯示；量到的是「參數模型 + 重畫」的成本，監聽器與控制項重繪的耗時不在其中。
+ * 照節奏重播時，每次把「已到期」的事件一起套用後畫一張；
+ * 每筆使用者輸入的延遲 = 該張畫完的時間 − 事件應發生的時間（含排隊等待前一張畫完）。
+ */
+public class InputReplayer {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("usage: InputReplayer <session file> [speed, 0 = as fast as possible]");
+            System.exit(2);
+        }
+        InputSession session = InputSession.load(new File(args[0]));
+        double speed = args.length > 1 ? Double.parseDouble(args[1]) : 1.0;
+        SwingUtilities.invokeAndWait(() -> new InputReplayer(session, speed).run());
+    }
+
+    private final InputSession session;
+    private final double speed;
+    private final ConicalSpiral3DInteractive.SpiralPanel canvas = new ConicalSpiral3DInteractive.SpiralPanel();
+    private final ParamModel model;
+    private final BufferedImage image;
+    private final Graphics2D g2;
+
+    private long[] latencies = new long[256];
+    private int inputCount, frameCount;
+
+    InputReplayer(InputSession session, double speed) {
+        this.session = session;
+        this.speed = speed;
+        int w = Math.max(1, session.width), h = Math.max(1, session.height);
+        canvas.setSize(w, h);
+        SpiralParams.Builder initial = SpiralParams.DEFAULTS.toBuilder();
+        for (int i = 0; i < session.controlNames.length; i++) {
+            initial.control(session.controlNames[i], session.initialValues[i]);
+        }
+        model = new ParamModel(initial.build());
+        canvas.setParams(model.current());
+        image = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        g2 = image.createGraphics();
+    }
+
+    void run() {
+        List<InputSession.Event> events = session.events;
+        render(); // 初始畫面（暖機，不計入）
+        frameCount = 0;
+
+        long start = System.nanoTime();
+        int next = 0;
+        while (next < events.size()) {
+            long frameStart = System.nanoTime();
+            int end;
+            if (speed > 0) {
+                long due = start + scaled(events.get(next).timeNanos);
+                sleepUntil(due);
+                long now = System.nanoTime();
+                end = next;
+                while (end < events.size() && start + scaled(events.get(end).timeNanos) <= now) end++;
+            } else {
+                // 一筆使用者輸入連同緊接著的同步事件為一批
+                end = next + 1;
+                while (end < events.size() && InputSession.isSynthetic(events.get(end).type)) end++;
+            }
+            for (int i = next; i < end; i++) apply(events.get(i));
+            render();
+            long done = System.nanoTime();
+            for (int i = next; i < end; i++) {
+                InputSession.Event e = events.get(i);
+                if (InputSession.isSynthetic(e.type)) continue;
+                long due = speed > 0 ? start + scaled(e.timeNanos) : frameStart;
+                addLatency(done - due);
+            }
+            next = end;
+        }
+        long elapsed = System.nanoTime() - start;
+        report(elapsed);
+        g2.dispose();
+    }
+
+    private long scaled(long timeNanos) {
+        return (long) (timeNanos / speed);
+    }
+
+    private void apply(InputSession.Event e) {
+        switch (e.type) {
+            case InputSession.PRESS:   model.press(e.a, e.b); break;
+            case InputSession.DRAG:    model.drag(e.a, e.b); break;
+            case InputSession.RELEASE: model.release(); break;
+            case InputSession.WHEEL:   model.wheel(e.a / 1000.0); break;
+            case InputSession.ROTATE:  model.rotateYaw(e.a * InputSession.ROTATE_UNIT); break;
+            case InputSession.CONTROL:
+            case InputSession.SYNC:
+                model.control(session.controlNames[e.a], e.b);
+                break;
+            default: throw new IllegalStateException("unknown event type " + e.type);
+        }
+    }
+
+    private void render() {
+        if (model.commit()) canvas.setParams(model.current());
+        canvas.paint(g2);
+        frameCount++;
+    }
+
+    private void addLatency(long nanos) {
+        if (inputCount == latencies.length) latencies = Arrays.copyOf(latencies, inputCount * 2);
+        latencies[inputCount++] = nanos;
+    }
+
+    private static void sleepUntil(long deadline) {
+        long wait;
+        while ((wait = deadline - System.nanoTime()) > 0) {
+            try {
+                Thread.sleep(wait / 1_000_000L, (int) (wait % 1_000_000L));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        long recorded = session.events.isEmpty() ? 0 : session.events.get(session.events.size() - 1).timeNanos;
+        System.out.printf("session  : %d events (%d user inputs), %.1f s recorded, canvas %dx%d%n",
+                session.events.size(), inputCount, recorded / 1e9, session.width, session.height);
+        System.out.printf("replay   : speed %s, %.2f s, %d frames (%.1f fps), %.1f inputs/s%n",
+                speed > 0 ? speed + "x" : "max", seconds, frameCount,
+                frameCount / Math.max(seconds, 1e-9), inputCount / Math.max(seconds, 1e-9));
+        if (inputCount == 0) return;
+        long[] sorted = Arrays.copyOf(latencies, inputCount);
+        Arrays.sort(sorted);
+        System.out.printf("latency  : p50 %.2f ms  p90 %.2f ms  p99 %.2f ms  max %.2f ms%n",
+                percentile(sorted, 0.50) / 1e6, percentile(sorted, 0.90) / 1e6,
+                percentile(sorted, 0.99) / 1e6, sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int i = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, i))];
+    }
+}
@@ -0,0 +1,229 @@
+import java.awt.Component;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 輸入錄製檔：記錄畫布上的滑鼠按下/拖曳/放開、滾輪與控制項（滑桿、勾選框）變更。
+ *
+ * 格式（big-endian）：
+ *   int magic "SPRL"、byte 版本、varint 畫布寬/高、varint 控制項數，
+ *   每個控制項 UTF 名稱 + zigzag 初始值；之後每筆事件為
+ *   byte 類型、varint 與上一筆的時間差（微秒）、依類型而定的 zigzag 參數。
+ * 滾輪旋轉量以千分之一為單位存成整數。
+ * ROTATE 是自動旋轉 Timer 每一格的 yaw 增量（百萬分之一度的定點數）；互動版套用的也是同一個取整後的值，
+ * 所以重播與錄製時的 yaw 逐位元相同。它與拖曳一樣是相對量，兩者交錯時不會互相覆蓋。
+ * ROTATE 與 SYNC 都是程式自己造成的參數變更，重播時照樣套用，但不算使用者輸入。
+ * SYNC（控制項的絕對值）只出現在版本 1 的檔案：當時自動旋轉記成取整到整數度的 yaw，重播會有漂移。
+ */
+final class InputSession {
+
+    static final int MAGIC = 0x5350524C; // "SPRL"
+    static final int VERSION = 2;
+
+    static final byte PRESS = 1, DRAG = 2, RELEASE = 3, WHEEL = 4, CONTROL = 5, SYNC = 6, ROTATE = 7;
+
+    /** 自動旋轉增量的定點數單位：百萬分之一度。 */
+    static final double ROTATE_UNIT = 1e-6;
+
+    /** 程式造成、不算使用者輸入的事件。 */
+    static boolean isSynthetic(byte type) { return type == SYNC || type == ROTATE; }
+
+    /** 把 yaw 增量取整到定點數；互動版與錄製檔都用這個值。 */
+    static int rotateUnits(double deltaDeg) { return (int) Math.round(deltaDeg / ROTATE_UNIT); }
+
+    /** 一筆輸入事件；timeNanos 為相對於錄製開始的時間。 */
+    static final class Event {
+        final long timeNanos;
+        final byte type;
+        final int a, b; // PRESS/DRAG: x, y；WHEEL: 旋轉量 ×1000；CONTROL/SYNC: 控制項索引, 值；ROTATE: yaw 增量（ROTATE_UNIT）
+
+        Event(long timeNanos, byte type, int a, int b) {
+            this.timeNanos = timeNanos;
+            this.type = type;
+            this.a = a;
+            this.b = b;
+        }
+    }
+
+    final int width, height;
+    final String[] controlNames;
+    final int[] initialValues;
+    final List<Event> events;
+
+    private InputSession(int width, int height, String[] controlNames, int[] initialValues, List<Event> events) {
+        this.width = width;
+        this.height = height;
+        this.controlNames = controlNames;
+        this.initialValues = initialValues;
+        this.events = events;
+    }
+
+    static InputSession load(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException(file + ": not an input session");
+            int version = in.readUnsignedByte();
+            if (version < 1 || version > VERSION) throw new IOException(file + ": unsupported version " + version);
+            int width = (int) readVarLong(in), height = (int) readVarLong(in);
+            int count = (int) readVarLong(in);
+            String[] names = new String[count];
+            int[] initial = new int[count];
+            for (int i = 0; i < count; i++) {
+                names[i] = in.readUTF();
+                initial[i] = readZigZag(in);
+            }
+            List<Event> events = new ArrayList<>();
+            long t = 0;
+            while (true) {
+                int type = in.read();
+                if (type < 0) break;
+                t += readVarLong(in) * 1000L;
+                int a = 0, b = 0;
+                switch (type) {
+                    case PRESS: case DRAG: case CONTROL: case SYNC:
+                        a = readZigZag(in);
+                        b = readZigZag(in);
+                        break;
+                    case WHEEL: case ROTATE:
+                        a = readZigZag(in);
+                        break;
+                    case RELEASE:
+                        break;
+                    default:
+                        throw new IOException(file + ": unknown event type " + type);
+                }
+                events.add(new Event(t, (byte) type, a, b));
+            }
+            return new InputSession(width, height, names, initial, events);
+        } catch (EOFException e) {
+            throw new IOException(file + ": truncated input session", e);
+        }
+    }
+
+    // ===================== 錄製 =====================
+
+    /**
+     * 錄製器；標頭在第一筆事件時才寫出，因此記錄的是當下的畫布大小與控制項狀態。
+     * 只應在 EDT 上呼叫（close 例外，可由 shutdown hook 呼叫）。
+     */
+    static final class Recorder implements Closeable {
+        private final File file;
+        private final Component canvas;
+        private final String[] controlNames;
+        private final Supplier<int[]> controlValues;
+        private DataOutputStream out;
+        private int[] lastValues;
+        private long startNanos, lastNanos;
+
+        Recorder(File file, Component canvas, String[] controlNames, Supplier<int[]> controlValues) {
+            this.file = file;
+            this.canvas = canvas;
+            this.controlNames = controlNames;
+            this.controlValues = controlValues;
+        }
+
+        synchronized void press(int x, int y) { write(PRESS, x, y); }
+        synchronized void drag(int x, int y) { write(DRAG, x, y); }
+        synchronized void release() { write(RELEASE, 0, 0); }
+        synchronized void wheel(double rotation) { write(WHEEL, (int) Math.round(rotation * 1000), 0); }
+        synchronized void rotate(int units) { write(ROTATE, units, 0); }
+
+        /** 控制項值沒變（例如勾選框的 rollover 通知）就不記錄。 */
+        synchronized void control(int index, int value) {
+            begin();
+            if (out == null || lastValues[index] == value) return;
+            lastValues[index] = value;
+            write(CONTROL, index, value);
+        }
+
+        private void write(byte type, int a, int b) {
+            begin();
+            if (out == null) return;
+            try {
+                long now = System.nanoTime();
+                out.writeByte(type);
+                writeVarLong(out, (now - lastNanos) / 1000L);
+                lastNanos = now - (now - lastNanos) % 1000L; // 捨去的零頭累積到下一筆，避免時間漂移
+                if (type == PRESS || type == DRAG || type == CONTROL || type == SYNC) {
+                    writeZigZag(out, a);
+                    writeZigZag(out, b);
+                } else if (type == WHEEL || type == ROTATE) {
+                    writeZigZag(out, a);
+                }
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        private void begin() {
+            if (out != null || lastValues != null) return;
+            lastValues = controlValues.get().clone();
+            try {
+                out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                writeVarLong(out, canvas.getWidth());
+                writeVarLong(out, canvas.getHeight());
+                writeVarLong(out, controlNames.length);
+                for (int i = 0; i < controlNames.length; i++) {
+                    out.writeUTF(controlNames[i]);
+                    writeZigZag(out, lastValues[i]);
+                }
+                startNanos = lastNanos = System.nanoTime();
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        private void fail(IOException e) {
+            System.err.println("input recording stopped: " + e);
+            try { if (out != null) out.close(); } catch (IOException ignored) { }
+            out = null;
+        }
+
+        @Override public synchronized void close() throws IOException {
+            if (out == null) return;
+            out.close();
+            out = null;
+            System.err.printf("input session saved to %s (%.1f s)%n", file, (lastNanos - startNanos) / 1e9);
+        }
+    }
+
+    // ===================== varint =====================
+    static void writeVarLong(DataOutputStream out, long v) throws IOException {
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    static long readVarLong(DataInputStream in) throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IOException("malformed varint");
+    }
+
+    static void writeZigZag(DataOutputStream out, int v) throws IOException {
+        writeVarLong(out, ((v << 1) ^ (v >> 31)) & 0xFFFFFFFFL);
+    }
+
+    static int readZigZag(DataInputStream in) throws IOException {
+        int v = (int) readVarLong(in);
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
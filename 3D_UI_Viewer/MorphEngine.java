@@ -0,0 +1,157 @@
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 兩組參數之間的補間動畫：圈數、衰減、上升、終端半徑比例與相機沿緩動曲線內插。
+ *
+ * 兩段式管線：背景執行緒產生下一張的幾何並投影，前景（EDT 或匯出迴圈）同時畫目前這張。
+ * 兩個畫面槽輪流使用——一個正在顯示，另一個給背景填寫——因此每張畫面不必重新配置緩衝區。
+ * 用法：{@link #prefetch} 第 0 張，之後每次 {@link #take} 取得已算好的畫面、再 prefetch 下一張。
+ */
+final class MorphEngine implements AutoCloseable {
+
+    /** 緩動曲線：輸入與輸出都在 [0, 1]。 */
+    enum Easing {
+        LINEAR {
+            double apply(double t) { return t; }
+        },
+        SMOOTHSTEP {
+            double apply(double t) { return t * t * (3 - 2 * t); }
+        },
+        EASE_IN_OUT_CUBIC {
+            double apply(double t) {
+                return t < 0.5 ? 4 * t * t * t : 1 - Math.pow(-2 * t + 2, 3) / 2;
+            }
+        };
+
+        abstract double apply(double t);
+    }
+
+    /** 一張已投影、可直接畫的畫面。 */
+    static final class Frame {
+        int index;
+        SpiralParams params;
+        final SpiralProjector projector = new SpiralProjector();
+        final VertexBuffer screen = new VertexBuffer(VertexBuffer.Layout.FLOAT32, 4096);
+        private final Line2D.Double segment = new Line2D.Double();
+        private final Path2D.Float path = new Path2D.Float();
+
+        void draw(Graphics2D g2) {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+            ConicalSpiral3DInteractive.SpiralPanel.drawGroundGrid(g2, projector, segment);
+            ConicalSpiral3DInteractive.SpiralPanel.drawSpiral(g2, screen, path);
+        }
+    }
+
+    private final SpiralParams from, to;
+    private final Easing easing;
+    private final int frameCount;
+    private final int width, height;
+
+    // 幾何只在背景執行緒使用
+    private final SpiralGeometry geometry = new SpiralGeometry(VertexBuffer.Layout.FLOAT64);
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "spiral-morph");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Frame[] slots = {new Frame(), new Frame()};
+    private int shownSlot = -1;
+    private Future<Frame> ahead;
+
+    /**
+     * @param frameCount 含頭尾兩張；第 0 張為 from、最後一張為 to
+     */
+    MorphEngine(SpiralParams from, SpiralParams to, Easing easing, int frameCount, int width, int height) {
+        this.from = from;
+        this.to = to;
+        this.easing = easing;
+        this.frameCount = Math.max(2, frameCount);
+        this.width = width;
+        this.height = height;
+    }
+
+    int frameCount() { return frameCount; }
+
+    /** 第 index 張的參數。 */
+    SpiralParams paramsAt(int index) {
+        double t = easing.apply(Math.max(0, Math.min(1, index / (double) (frameCount - 1))));
+        return interpolate(from, to, t);
+    }
+
+    /** 數值參數線性內插；開關類（阿基米德、網格）在中點切換。 */
+    static SpiralParams interpolate(SpiralParams a, SpiralParams b, double t) {
+        SpiralParams snap = t < 0.5 ? a : b;
+        return new SpiralParams.Builder(snap)
+                .turns(lerp(a.turns, b.turns, t))
+                .decayPerTurn(lerp(a.decayPerTurn, b.decayPerTurn, t))
+                .endRatio(lerp(a.endRatio, b.endRatio, t))
+                .liftPerRad(lerp(a.liftPerRad, b.liftPerRad, t))
+                .yawDeg(lerp(a.yawDeg, b.yawDeg, t))
+                .pitchDeg(lerp(a.pitchDeg, b.pitchDeg, t))
+                .fov(lerp(a.fov, b.fov, t))
+                .depth(lerp(a.depth, b.depth, t))
+                .build();
+    }
+
+    private static double lerp(double a, double b, double t) {
+        return a + (b - a) * t;
+    }
+
+    /** 在背景開始計算第 index 張；前一次 prefetch 必須已經 take。 */
+    void prefetch(int index) {
+        if (ahead != null) throw new IllegalStateException("previous frame not taken yet");
+        Frame slot = slots[shownSlot == 0 ? 1 : 0];
+        int clamped = Math.max(0, Math.min(frameCount - 1, index));
+        ahead = worker.submit(() -> compute(slot, clamped));
+    }
+
+    /** 已 prefetch 的畫面是否算好（不阻塞）。 */
+    boolean ready() {
+        return ahead != null && ahead.isDone();
+    }
+
+    /** 取得 prefetch 的畫面（必要時等待）；它成為顯示中的畫面，前一張的槽交還給背景。 */
+    Frame take() throws InterruptedException {
+        if (ahead == null) throw new IllegalStateException("nothing prefetched");
+        try {
+            Frame f = ahead.get();
+            shownSlot = f == slots[0] ? 0 : 1;
+            return f;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("morph frame failed", e.getCause());
+        } finally {
+            ahead = null;
+        }
+    }
+
+    private Frame compute(Frame slot, int index) {
+        SpiralParams p = paramsAt(index);
+        double r0 = Math.min(width, height) * 0.38;
+        geometry.update(p.turns, p.archimedean, p.decayPerTurn, p.endRatio, p.liftPerRad, p.dTheta, r0);
+        slot.projector.setCamera(width / 2, height / 2 + 40, p.yawDeg, p.pitchDeg, p.fov, p.depth);
+        slot.projector.project(geometry.vertices(), slot.screen);
+        slot.index = index;
+        slot.params = p;
+        return slot;
+    }
+
+    @Override public void close() {
+        worker.shutdownNow();
+        try {
+            worker.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        geometry.vertices().close();
+        for (Frame f : slots) f.screen.close();
+    }
+}
@@ -0,0 +1,181 @@
+import javax.imageio.ImageIO;
+import javax.swing.JPanel;
+import javax.swing.Timer;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * 播放 {@link MorphEngine} 的動畫。以固定節拍（每秒 {@link #FPS} 張）依經過時間決定該顯示第幾張：
+ * 背景來不及時保留目前畫面、下一張直接跳到排程位置，整段動畫的長度因此固定。
+ *
+ * 也可無視窗匯出整段動畫為 PNG 序列：
+ *   java -Djava.awt.headless=true MorphPlayer --export out/ [--from k=v,...] [--to k=v,...]
+ *        [--seconds 3] [--fps 60] [--size 900x800] [--easing SMOOTHSTEP]
+ * k=v 使用控制項名稱與滑桿刻度（見 {@link SpiralParams#CONTROL_NAMES}），例如 turns=10,decay=85。
+ */
+final class MorphPlayer extends JPanel {
+
+    static final int FPS = 60;
+
+    private final MorphEngine engine;
+    private final Runnable onFinished;
+    private final Timer timer;
+    private MorphEngine.Frame shown;
+    private long startNanos;
+    private int skipped;
+
+    /**
+     * @param onFinished 播到最後一張後在 EDT 上呼叫
+     */
+    MorphPlayer(MorphEngine engine, Runnable onFinished) {
+        this.engine = engine;
+        this.onFinished = onFinished;
+        this.timer = new Timer(1000 / FPS, e -> tick());
+        setBackground(Color.white);
+    }
+
+    /** 同步算好第 0 張後開始播放。 */
+    void start() throws InterruptedException {
+        engine.prefetch(0);
+        shown = engine.take();
+        engine.prefetch(1);
+        startNanos = System.nanoTime();
+        timer.start();
+        repaint();
+    }
+
+    /** 因背景來不及而跳過的張數。 */
+    int skippedFrames() { return skipped; }
+
+    private void tick() {
+        int last = engine.frameCount() - 1;
+        int due = (int) Math.min(last, (System.nanoTime() - startNanos) * FPS / 1_000_000_000L);
+        if (due <= shown.index || !engine.ready()) return;
+        try {
+            shown = engine.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (shown.index >= last) {
+            timer.stop();
+            repaint();
+            onFinished.run();
+            return;
+        }
+        int next = Math.max(shown.index + 1, due + 1);
+        skipped += next - shown.index - 1;
+        engine.prefetch(next);
+        repaint();
+    }
+
+    @Override protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        if (shown == null) return;
+        Graphics2D g2 = (Graphics2D) g.create();
+        shown.draw(g2);
+        g2.dispose();
+    }
+
+    // ===================== 無視窗匯出 =====================
+
+    public static void main(String[] args) throws Exception {
+        File out = null;
+        SpiralParams from = SpiralParams.DEFAULTS;
+        SpiralParams to = parsePreset(SpiralParams.DEFAULTS, "turns=10,decay=88,lift=30,yaw=-40,pitch=45,fov=700,depth=600");
+        double seconds = 3;
+        int fps = FPS, width = 900, height = 800;
+        MorphEngine.Easing easing = MorphEngine.Easing.SMOOTHSTEP;
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            try {
+                switch (args[i]) {
+                    case "--export":  out = new File(args[++i]); break;
+                    case "--from":    from = preset(args[++i]); break;
+                    case "--to":      to = preset(args[++i]); break;
+                    case "--seconds": seconds = Double.parseDouble(args[++i]); break;
+                    case "--fps":     fps = Integer.parseInt(args[++i]); break;
+                    case "--size": {
+                        String[] wh = args[++i].split("x");
+                        if (wh.length != 2) throw new IllegalArgumentException("expected WxH: " + args[i]);
+                        width = Integer.parseInt(wh[0]);
+                        height = Integer.parseInt(wh[1]);
+                        break;
+                    }
+                    case "--easing":  easing = MorphEngine.Easing.valueOf(args[++i].toUpperCase(Locale.ROOT)); break;
+                    default:
+                        usage("unknown option: " + args[i]);
+                }
+            } catch (ArrayIndexOutOfBoundsException e) {
+                usage(option + ": missing value");
+            } catch (IllegalArgumentException e) {
+                usage(option + ": " + e.getMessage());
+            }
+        }
+        if (out == null) usage(null);
+        export(from, to, easing, (int) Math.round(seconds * fps) + 1, width, height, out);
+    }
+
+    /** 預設值寫錯時，錯誤訊息附上可用的控制項名稱。 */
+    private static SpiralParams preset(String spec) {
+        try {
+            return parsePreset(SpiralParams.DEFAULTS, spec);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(spec + ": " + e.getMessage()
+                    + " (controls: " + String.join(", ", SpiralParams.CONTROL_NAMES) + ")");
+        }
+    }
+
+    private static void usage(String error) {
+        if (error != null) System.err.println(error);
+        System.err.println("usage: MorphPlayer --export <dir> [--from k=v,...] [--to k=v,...] "
+                + "[--seconds 3] [--fps 60] [--size 900x800] [--easing LINEAR|SMOOTHSTEP|EASE_IN_OUT_CUBIC]");
+        System.exit(2);
+    }
+
+    /** 逐張匯出：背景算第 i+1 張時，前景畫第 i 張並編碼成 PNG。 */
+    static void export(SpiralParams from, SpiralParams to, MorphEngine.Easing easing,
+                       int frames, int width, int height, File dir) throws IOException, InterruptedException {
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("cannot create " + dir);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        long waitNanos = 0;
+        long start = System.nanoTime();
+        try (MorphEngine engine = new MorphEngine(from, to, easing, frames, width, height)) {
+            frames = engine.frameCount();
+            engine.prefetch(0);
+            for (int i = 0; i < engine.frameCount(); i++) {
+                long t0 = System.nanoTime();
+                MorphEngine.Frame f = engine.take();
+                waitNanos += System.nanoTime() - t0;
+                if (i + 1 < engine.frameCount()) engine.prefetch(i + 1);
+
+                Graphics2D g2 = image.createGraphics();
+                g2.setColor(Color.white);
+                g2.fillRect(0, 0, width, height);
+                f.draw(g2);
+                g2.dispose();
+                ImageIO.write(image, "png", new File(dir, String.format(Locale.ROOT, "frame_%04d.png", i)));
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT, "exported %d frames to %s in %.2f s (%.1f frames/s, %.2f s waiting for geometry)%n",
+                frames, dir, seconds, frames / seconds, waitNanos / 1e9);
+    }
+
+    /** 解析 "turns=10,decay=85" 這類以控制項刻度表示的預設值。 */
+    static SpiralParams parsePreset(SpiralParams base, String spec) {
+        SpiralParams.Builder b = base.toBuilder();
+        for (String kv : spec.split(",")) {
+            if (kv.trim().isEmpty()) continue;
+            String[] parts = kv.split("=", 2);
+            if (parts.length != 2) throw new IllegalArgumentException("expected key=value: " + kv);
+            b.control(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return b.build();
+    }
+}
@@ -0,0 +1,106 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * 四視圖畫布：上視、前視、側視與自由視角並排。
+ * 四個視窗共用 {@link ConicalSpiral3DInteractive.SpiralPanel} 的同一份世界座標頂點，
+ * 各自有相機與輸出緩衝區；投影在 {@link SpiralWorkers} 上平行進行，完成後才在 EDT 上繪製。
+ */
+final class MultiViewCanvas extends JPanel {
+
+    // 固定視角用長焦距 + 大深度，接近正交投影（比例約 1:1）
+    private static final double FIXED_FOV = 1500, FIXED_DEPTH = 1500;
+
+    private static final class Viewport {
+        final String name;
+        final double azimuthDeg, yawDeg, pitchDeg;
+        final boolean free; // 自由視角跟隨主畫布的 yaw/pitch/FOV/depth
+        final SpiralProjector projector = new SpiralProjector();
+        final VertexBuffer screen = new VertexBuffer(VertexBuffer.Layout.FLOAT32, 4096);
+        final Rectangle bounds = new Rectangle();
+
+        Viewport(String name, double azimuthDeg, double yawDeg, double pitchDeg, boolean free) {
+            this.name = name;
+            this.azimuthDeg = azimuthDeg;
+            this.yawDeg = yawDeg;
+            this.pitchDeg = pitchDeg;
+            this.free = free;
+        }
+    }
+
+    private final ConicalSpiral3DInteractive.SpiralPanel source;
+    private final Viewport[] views = {
+            new Viewport("Top",   0,  0,   0, false),
+            new Viewport("Front", 0,  0, -90, false),
+            new Viewport("Side",  90, 0, -90, false),
+            new Viewport("Perspective", 0, 0, 0, true),
+    };
+    private final Line2D.Double segment = new Line2D.Double();
+    private final Path2D.Float path = new Path2D.Float();
+
+    MultiViewCanvas(ConicalSpiral3DInteractive.SpiralPanel source) {
+        this.source = source;
+        setBackground(Color.white);
+    }
+
+    @Override public Dimension getPreferredSize() { return new Dimension(900, 800); }
+
+    @Override protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2 = (Graphics2D) g.create();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+
+        int vw = getWidth() / 2, vh = getHeight() / 2;
+        double r0 = Math.min(vw, vh) * 0.38;
+
+        // 幾何只產生一次，四個視窗共用
+        VertexBuffer world = source.worldVertices(r0);
+        double zMid = world.size() > 0 ? world.z(world.size() - 1) / 2 : 0;
+
+        for (int i = 0; i < views.length; i++) {
+            Viewport v = views[i];
+            v.bounds.setBounds((i % 2) * vw, (i / 2) * vh, vw, vh);
+            int cx = vw / 2;
+            if (v.free) {
+                v.projector.setCamera(cx, vh / 2 + 40, source.getYawDeg(), source.getPitchDeg(),
+                        source.getFov(), source.getDepth());
+            } else {
+                // 上視沿螺旋軸看下去；前/側視把螺旋的高度中點放在視窗中央
+                int cy = v.pitchDeg == 0 ? vh / 2 : (int) Math.round(vh / 2 + zMid);
+                v.projector.setCamera(cx, cy, v.azimuthDeg, v.yawDeg, v.pitchDeg, FIXED_FOV, FIXED_DEPTH);
+            }
+        }
+
+        projectAll(world);
+
+        for (Viewport v : views) {
+            Graphics2D vg = (Graphics2D) g2.create(v.bounds.x, v.bounds.y, v.bounds.width, v.bounds.height);
+            ConicalSpiral3DInteractive.SpiralPanel.drawGroundGrid(vg, v.projector, segment);
+            ConicalSpiral3DInteractive.SpiralPanel.drawSpiral(vg, v.screen, path);
+            vg.setColor(Color.darkGray);
+            vg.drawString(v.name, 8, 16);
+            vg.setColor(Color.lightGray);
+            vg.drawRect(0, 0, v.bounds.width - 1, v.bounds.height - 1);
+            vg.dispose();
+        }
+        g2.dispose();
+    }
+
+    /** 四個視窗平行投影；world 只被讀取，每個任務只寫自己的 screen。 */
+    private void projectAll(VertexBuffer world) {
+        List<Callable<Void>> tasks = new ArrayList<>(views.length);
+        for (Viewport v : views) {
+            tasks.add(() -> {
+                v.projector.project(world, v.screen);
+                return null;
+            });
+        }
+        SpiralWorkers.runAll(tasks);
+    }
+}
@@ -0,0 +1,81 @@
+import java.awt.Point;
+
+/**
+ * 參數狀態模型：滑鼠拖曳、滾輪、滑桿與自動旋轉 Timer 的輸入都先累積在這裡，
+ * 由畫面節拍呼叫 {@link #commit()}，每張畫面最多產生一份不可變的 {@link SpiralParams}。
+ * 只在 EDT 上使用。
+ */
+final class ParamModel {
+
+    private SpiralParams.Builder pending;
+    private SpiralParams current;
+    private boolean dirty;
+    private Runnable onDirty = () -> { };
+
+    // 拖曳狀態：水平拖曳改 yaw、垂直拖曳改 pitch
+    private Point dragLast;
+
+    ParamModel(SpiralParams initial) {
+        this.current = initial;
+        this.pending = initial.toBuilder();
+    }
+
+    /** 最近一次 commit 的快照。 */
+    SpiralParams current() { return current; }
+
+    /** 從「沒有待處理輸入」變成「有」時呼叫一次，用來排下一張畫面。 */
+    void setOnDirty(Runnable onDirty) { this.onDirty = onDirty; }
+
+    /** 依控制項名稱套用滑桿/勾選框的整數值。 */
+    void control(String name, int value) {
+        pending.control(name, value);
+        markDirty();
+    }
+
+    /** 整組換掉（例如動畫播完後停在終點）。 */
+    void set(SpiralParams p) {
+        pending = p.toBuilder();
+        markDirty();
+    }
+
+    void press(int x, int y) { dragLast = new Point(x, y); }
+    void release() { dragLast = null; }
+
+    void drag(int x, int y) {
+        if (dragLast == null) { dragLast = new Point(x, y); return; }
+        int dx = x - dragLast.x;
+        int dy = y - dragLast.y;
+        pending.yawDeg(pending.yawDeg() + dx * 0.4);
+        pending.pitchDeg(pending.pitchDeg() - dy * 0.4);
+        dragLast.setLocation(x, y);
+        markDirty();
+    }
+
+    /** 滾輪：往上放大 FOV、往下縮小。 */
+    void wheel(double rotation) {
+        double step = 30.0;
+        pending.fov(rotation < 0 ? pending.fov() + step : pending.fov() - step);
+        markDirty();
+    }
+
+    void rotateYaw(double deltaDeg) {
+        pending.yawDeg(pending.yawDeg() + deltaDeg);
+        markDirty();
+    }
+
+    /** 把累積的輸入整理成新快照；回傳快照是否真的改變。 */
+    boolean commit() {
+        if (!dirty) return false;
+        dirty = false;
+        SpiralParams next = pending.build();
+        if (next.equals(current)) return false;
+        current = next;
+        return true;
+    }
+
+    private void markDirty() {
+        if (dirty) return;
+        dirty = true;
+        onDirty.run();
+    }
+}
@@ -0,0 +1,244 @@
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+/**
+ * 沿螺旋以等速流動的發光粒子。
+ *
+ * 粒子位置以「弧長」表示，而不是角度：直接按 θ 前進時，內圈的點幾乎不動、外圈的點飛快。
+ * 因此在 {@link SpiralGeometry} 的頂點上建一張累積弧長表（幾何 version 變了才重建；
+ * 與頂點一樣放在 off-heap，數百萬點的螺旋也不會在 heap 上多出一個同長度的 double[]），
+ * 每張畫面依實際經過時間推進弧長，再於表中找出所在線段、在兩個頂點之間線性內插出世界座標並投影。
+ * 找線段時先看上一張所在的線段（每張只前進一點點，通常還在原處或下一段），不在附近才二分搜尋。
+ *
+ * 推進與投影分段在 {@link SpiralWorkers} 上平行計算（每顆粒子只寫自己的欄位）；繪製時把所有光點累加到一張半透明圖層，
+ * 最後只 drawImage 一次疊在螺旋上。
+ */
+final class ParticleSystem {
+
+    // 每段至少這麼多顆才分給執行緒池，太少時排程成本比計算還高
+    private static final int MIN_CHUNK = 2048;
+
+    // 世界座標單位/秒；每顆粒子另有 ±15% 的固定倍率，看起來才不像整條一起平移
+    static final double SPEED = 120;
+
+    // 經過時間上限：視窗被拖住或暫停後回來時不會一次跳很遠
+    private static final double MAX_STEP = 0.1;
+
+    // 光點：5×5 的柔和亮斑，顏色為暖橘色（預乘 alpha 累加，重疊處越疊越亮）
+    private static final int SPRITE_RADIUS = 2;
+    private static final int[] SPRITE = new int[(2 * SPRITE_RADIUS + 1) * (2 * SPRITE_RADIUS + 1)];
+    private static final float GLOW_R = 1.0f, GLOW_G = 0.55f, GLOW_B = 0.12f;
+    private static final int BRIGHTNESS_LEVELS = 16;
+    static {
+        for (int dy = -SPRITE_RADIUS, k = 0; dy <= SPRITE_RADIUS; dy++) {
+            for (int dx = -SPRITE_RADIUS; dx <= SPRITE_RADIUS; dx++, k++) {
+                SPRITE[k] = (int) Math.round(230 * Math.exp(-(dx * dx + dy * dy) / 1.6));
+            }
+        }
+    }
+
+    private final int count;
+    private final double[] arc;      // 每顆粒子目前的弧長位置
+    private final float[] speed;     // 每顆粒子的速度（世界單位/秒）
+    private final int[] segment;     // 上一張所在的線段（頂點 k → k+1）
+    private final int[] px, py;      // 螢幕座標
+    private final byte[] brightness; // 依相機深度量化，越遠越暗
+
+    // 累積弧長表：cumulative[i] = 第 0 點到第 i 點的折線長度
+    private DoubleBuffer cumulative = allocate(0);
+    private int tableSize;
+    private int tableVersion = -1;
+
+    private long lastNanos;
+    private double fixedStep; // > 0 時每張畫面固定前進這麼多秒（無頭輸出、回歸測試用）
+
+    // 每張畫面的輸入，任務開始前寫入
+    private VertexBuffer world;
+    private SpiralProjector projector;
+    private double step;
+    private final List<Callable<Void>> tasks = new ArrayList<>();
+
+    private BufferedImage layer;
+    private int[] pixels;
+    private int width, height;
+
+    /**
+     * @param count 粒子數；起始位置沿螺旋均勻分布（固定亂數種子，每次開啟看起來一樣）
+     */
+    ParticleSystem(int count) {
+        this.count = Math.max(1, count);
+        arc = new double[this.count];
+        speed = new float[this.count];
+        segment = new int[this.count];
+        px = new int[this.count];
+        py = new int[this.count];
+        brightness = new byte[this.count];
+        Random random = new Random(42);
+        for (int i = 0; i < this.count; i++) {
+            arc[i] = (i + random.nextDouble()) / this.count; // 先存比例，第一次建表時換成弧長
+            speed[i] = (float) (SPEED * (0.85 + 0.3 * random.nextDouble()));
+        }
+
+        int chunk = Math.max(MIN_CHUNK, (this.count + SpiralWorkers.THREADS - 1) / SpiralWorkers.THREADS);
+        for (int start = 0; start < this.count; start += chunk) {
+            int from = start, to = Math.min(this.count, start + chunk);
+            tasks.add(() -> {
+                advance(from, to);
+                return null;
+            });
+        }
+    }
+
+    int count() { return count; }
+
+    /** 改為每張畫面固定前進 seconds 秒；0 表示依實際經過時間。 */
+    void setFixedStep(double seconds) { this.fixedStep = seconds; }
+
+    /** 推進所有粒子並把光點疊畫到 g2；geometry 與 projector 必須是這張畫面剛用過的。 */
+    void draw(Graphics2D g2, SpiralGeometry geometry, SpiralProjector projector, int w, int h) {
+        long now = System.nanoTime();
+        double dt = fixedStep > 0 ? fixedStep : lastNanos == 0 ? 0 : Math.min(MAX_STEP, (now - lastNanos) / 1e9);
+        lastNanos = now;
+
+        if (!updateTable(geometry)) return;
+        this.world = geometry.vertices();
+        this.projector = projector;
+        this.step = dt;
+        SpiralWorkers.runAll(tasks);
+        this.world = null;
+        this.projector = null;
+
+        resize(w, h);
+        splat();
+        g2.drawImage(layer, 0, 0, null);
+    }
+
+    // ===================== 弧長表 =====================
+
+    /** 幾何有變才重建；粒子保留原本在整條螺旋上的比例位置。回傳 false 表示螺旋少於兩點。 */
+    private boolean updateTable(SpiralGeometry geometry) {
+        if (geometry.version() == tableVersion) return tableSize >= 2;
+        VertexBuffer v = geometry.vertices();
+        int n = v.size();
+        double oldTotal = tableSize >= 2 ? cumulative.get(tableSize - 1) : 0;
+        if (cumulative.capacity() < n) cumulative = allocate(Math.max(n, cumulative.capacity() * 3 / 2));
+
+        double total = 0;
+        if (n > 0) cumulative.put(0, 0);
+        for (int i = 1; i < n; i++) {
+            double dx = v.x(i) - v.x(i - 1), dy = v.y(i) - v.y(i - 1), dz = v.z(i) - v.z(i - 1);
+            total += Math.sqrt(dx * dx + dy * dy + dz * dz);
+            cumulative.put(i, total);
+        }
+        tableSize = n;
+        tableVersion = geometry.version();
+        if (n < 2 || total <= 0) return false;
+
+        // 第一次建表時 arc 存的是比例
+        double scale = oldTotal > 0 ? total / oldTotal : total;
+        for (int i = 0; i < count; i++) {
+            arc[i] = Math.min(arc[i] * scale, Math.nextDown(total));
+            segment[i] = 0;
+        }
+        return true;
+    }
+
+    private static DoubleBuffer allocate(int n) {
+        return ByteBuffer.allocateDirect(n * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+    }
+
+    /** 回傳 s 所在的線段 k（cumulative[k] ≤ s &lt; cumulative[k+1]），hint 為上一張的線段。 */
+    private int locate(double s, int hint) {
+        int last = tableSize - 2;
+        // 先看原線段與後面幾段
+        if (hint <= last && cumulative.get(hint) <= s) {
+            for (int k = hint, end = Math.min(last, hint + 4); k <= end; k++) {
+                if (s < cumulative.get(k + 1)) return k;
+            }
+        }
+        // 二分搜尋最後一個 cumulative[k] ≤ s 的 k
+        int lo = 0, hi = tableSize - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (cumulative.get(mid) <= s) lo = mid;
+            else hi = mid - 1;
+        }
+        return Math.min(last, lo);
+    }
+
+    // ===================== 推進與投影 =====================
+
+    private void advance(int from, int to) {
+        double total = cumulative.get(tableSize - 1);
+        double[] p = new double[3];
+        for (int i = from; i < to; i++) {
+            double s = arc[i] + speed[i] * step;
+            if (s >= total) s %= total; // 流到尖端後從外圈重新開始
+            arc[i] = s;
+
+            int k = locate(s, segment[i]);
+            segment[i] = k;
+            double c0 = cumulative.get(k), len = cumulative.get(k + 1) - c0;
+            double t = len > 0 ? (s - c0) / len : 0;
+            double x = world.x(k), y = world.y(k), z = world.z(k);
+            x += (world.x(k + 1) - x) * t;
+            y += (world.y(k + 1) - y) * t;
+            z += (world.z(k + 1) - z) * t;
+
+            projector.projectPoint(x, y, z, p);
+            px[i] = (int) Math.round(p[0]);
+            py[i] = (int) Math.round(p[1]);
+            // 與螺旋線一致：相機 Z 0 ~ 800 由亮到暗
+            double fade = Math.max(0, Math.min(1, p[2] / 800.0));
+            brightness[i] = (byte) Math.round((1 - 0.65 * fade) * (BRIGHTNESS_LEVELS - 1));
+        }
+    }
+
+    // ===================== 繪製 =====================
+
+    private void resize(int w, int h) {
+        w = Math.max(1, w);
+        h = Math.max(1, h);
+        if (layer != null && w == width && h == height) return;
+        width = w;
+        height = h;
+        layer = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB_PRE);
+        pixels = ((DataBufferInt) layer.getRaster().getDataBuffer()).getData();
+    }
+
+    /** 把所有光點以飽和加法累加到圖層（預乘 alpha，顏色分量永遠不超過 alpha）。 */
+    private void splat() {
+        Arrays.fill(pixels, 0);
+        int r = SPRITE_RADIUS, size = 2 * r + 1;
+        for (int i = 0; i < count; i++) {
+            int x0 = px[i] - r, y0 = py[i] - r;
+            if (x0 + size <= 0 || y0 + size <= 0 || x0 >= width || y0 >= height) continue;
+            int level = brightness[i];
+            for (int dy = 0; dy < size; dy++) {
+                int y = y0 + dy;
+                if (y < 0 || y >= height) continue;
+                int row = y * width;
+                for (int dx = 0; dx < size; dx++) {
+                    int x = x0 + dx;
+                    if (x < 0 || x >= width) continue;
+                    int a = SPRITE[dy * size + dx] * level / (BRIGHTNESS_LEVELS - 1);
+                    int c = pixels[row + x];
+                    int ca = Math.min(255, (c >>> 24) + a);
+                    int cr = Math.min(255, ((c >> 16) & 0xFF) + (int) (a * GLOW_R));
+                    int cg = Math.min(255, ((c >> 8) & 0xFF) + (int) (a * GLOW_G));
+                    int cb = Math.min(255, (c & 0xFF) + (int) (a * GLOW_B));
+                    pixels[row + x] = ca << 24 | cr << 16 | cg << 8 | cb;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 純 CPU 的分塊（tile）軟體光柵化器：深度緩衝 + Lambert 漫反射（Gouraud 逐頂點著色）。
+ * 流程：平行投影與著色所有頂點 → 依包圍盒把三角形分到 64×64 的區塊 →
+ * 各執行緒領取區塊，清除並光柵化該區塊內的三角形 → 最後畫上有深度測試的地面格線。
+ * 每個區塊只由一個執行緒寫入，因此顏色與深度緩衝不需要同步。
+ */
+final class SoftwareRasterizer {
+
+    static final int TILE = 64;
+
+    private static final int THREADS = SpiralWorkers.THREADS;
+
+    // 光源在相機座標中（左上前方），ambient + diffuse
+    private static final double LX = -0.40, LY = 0.60, LZ = -0.69;
+    private static final float AMBIENT = 0.22f, DIFFUSE = 0.78f;
+    private static final float BASE_R = 0.42f, BASE_G = 0.55f, BASE_B = 0.78f;
+
+    private BufferedImage image;
+    private int[] color;
+    private float[] depth; // 1/(depth + zCam)，越大越近；0 代表無限遠
+    private int width, height, tilesX, tilesY;
+
+    // 每個網格頂點的螢幕座標、1/w 與顏色
+    private float[] sx = new float[0], sy = new float[0], invW = new float[0];
+    private float[] cr = new float[0], cg = new float[0], cb = new float[0];
+
+    // 每個區塊的三角形清單（三角形以網格頂點索引三個一組存放）
+    private int[][] bins = new int[0][];
+    private int[] binSizes = new int[0];
+
+    BufferedImage render(TubeMesh mesh, SpiralProjector projector, int w, int h) {
+        resize(w, h);
+        projectVertices(mesh, projector);
+        binTriangles(mesh);
+        rasterizeTiles();
+        drawGroundGrid(projector);
+        return image;
+    }
+
+    private void resize(int w, int h) {
+        w = Math.max(1, w);
+        h = Math.max(1, h);
+        if (image != null && w == width && h == height) return;
+        width = w;
+        height = h;
+        image = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        color = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        depth = new float[w * h];
+        tilesX = (w + TILE - 1) / TILE;
+        tilesY = (h + TILE - 1) / TILE;
+        bins = new int[tilesX * tilesY][];
+        for (int i = 0; i < bins.length; i++) bins[i] = new int[96];
+        binSizes = new int[bins.length];
+    }
+
+    // ===================== 頂點階段 =====================
+    private void projectVertices(TubeMesh mesh, SpiralProjector projector) {
+        VertexBuffer pos = mesh.positions(), nrm = mesh.normals();
+        int n = pos.size();
+        if (sx.length < n) {
+            int cap = Math.max(n, sx.length * 3 / 2);
+            sx = new float[cap]; sy = new float[cap]; invW = new float[cap];
+            cr = new float[cap]; cg = new float[cap]; cb = new float[cap];
+        }
+        double depthOffset = projector.depth();
+        int chunk = (n + THREADS - 1) / THREADS;
+        List<Callable<Void>> tasks = new ArrayList<>(THREADS);
+        for (int start = 0; start < n; start += chunk) {
+            int from = start, to = Math.min(n, start + chunk);
+            tasks.add(() -> {
+                double[] p = new double[3], q = new double[3];
+                for (int i = from; i < to; i++) {
+                    projector.projectPoint(pos.x(i), pos.y(i), pos.z(i), p);
+                    sx[i] = (float) p[0];
+                    sy[i] = (float) p[1];
+                    invW[i] = (float) (1.0 / Math.max(1, depthOffset + p[2]));
+
+                    projector.rotateVector(nrm.x(i), nrm.y(i), nrm.z(i), q);
+                    // 雙面打光：管子內側與緞帶背面也會亮
+                    float lambert = (float) Math.abs(q[0] * LX + q[1] * LY + q[2] * LZ);
+                    float shade = AMBIENT + DIFFUSE * lambert;
+                    // 與原本的灰階深度漸層一致：越遠越淡
+                    float fog = (float) Math.max(0, Math.min(1, p[2] / 800.0)) * 0.55f;
+                    cr[i] = BASE_R * shade * (1 - fog) + fog;
+                    cg[i] = BASE_G * shade * (1 - fog) + fog;
+                    cb[i] = BASE_B * shade * (1 - fog) + fog;
+                }
+                return null;
+            });
+        }
+        SpiralWorkers.runAll(tasks);
+    }
+
+    // ===================== 分塊 =====================
+    private void binTriangles(TubeMesh mesh) {
+        Arrays.fill(binSizes, 0);
+        int rings = mesh.rings(), quads = mesh.quadsPerSegment();
+        for (int r = 0; r + 1 < rings; r++) {
+            for (int s = 0; s < quads; s++) {
+                int a = mesh.vertexIndex(r, s), b = mesh.vertexIndex(r, s + 1);
+                int c = mesh.vertexIndex(r + 1, s), d = mesh.vertexIndex(r + 1, s + 1);
+                bin(a, b, c);
+                bin(b, d, c);
+            }
+        }
+    }
+
+    private void bin(int a, int b, int c) {
+        float minX = Math.min(sx[a], Math.min(sx[b], sx[c]));
+        float maxX = Math.max(sx[a], Math.max(sx[b], sx[c]));
+        float minY = Math.min(sy[a], Math.min(sy[b], sy[c]));
+        float maxY = Math.max(sy[a], Math.max(sy[b], sy[c]));
+        if (maxX < 0 || maxY < 0 || minX >= width || minY >= height) return;
+        int tx0 = Math.max(0, (int) minX / TILE), tx1 = Math.min(tilesX - 1, (int) maxX / TILE);
+        int ty0 = Math.max(0, (int) minY / TILE), ty1 = Math.min(tilesY - 1, (int) maxY / TILE);
+        for (int ty = ty0; ty <= ty1; ty++) {
+            for (int tx = tx0; tx <= tx1; tx++) {
+                int t = ty * tilesX + tx;
+                int size = binSizes[t];
+                int[] bin = bins[t];
+                if (size + 3 > bin.length) bins[t] = bin = Arrays.copyOf(bin, bin.length * 2);
+                bin[size] = a;
+                bin[size + 1] = b;
+                bin[size + 2] = c;
+                binSizes[t] = size + 3;
+            }
+        }
+    }
+
+    // ===================== 光柵化 =====================
+    private void rasterizeTiles() {
+        AtomicInteger next = new AtomicInteger();
+        int tileCount = tilesX * tilesY;
+        List<Callable<Void>> workers = new ArrayList<>(THREADS);
+        for (int w = 0; w < THREADS; w++) {
+            workers.add(() -> {
+                for (int t = next.getAndIncrement(); t < tileCount; t = next.getAndIncrement()) {
+                    rasterizeTile(t);
+                }
+                return null;
+            });
+        }
+        SpiralWorkers.runAll(workers);
+    }
+
+    private void rasterizeTile(int t) {
+        int x0 = (t % tilesX) * TILE, y0 = (t / tilesX) * TILE;
+        int x1 = Math.min(width, x0 + TILE), y1 = Math.min(height, y0 + TILE);
+        for (int y = y0; y < y1; y++) {
+            int row = y * width;
+            Arrays.fill(color, row + x0, row + x1, 0xFFFFFF);
+            Arrays.fill(depth, row + x0, row + x1, 0f);
+        }
+        int[] bin = bins[t];
+        int size = binSizes[t];
+        for (int k = 0; k < size; k += 3) {
+            triangle(bin[k], bin[k + 1], bin[k + 2], x0, y0, x1, y1);
+        }
+    }
+
+    /** 以邊函數（edge function）掃描三角形在區塊內的像素，重心座標插值 1/w 與顏色。 */
+    private void triangle(int a, int b, int c, int tx0, int ty0, int tx1, int ty1) {
+        float ax = sx[a], ay = sy[a], bx = sx[b], by = sy[b], qx = sx[c], qy = sy[c];
+        float area = (bx - ax) * (qy - ay) - (by - ay) * (qx - ax);
+        if (Math.abs(area) < 1e-6f) return;
+        if (area < 0) { // 統一成同一個繞向
+            int tmp = b; b = c; c = tmp;
+            bx = sx[b]; by = sy[b]; qx = sx[c]; qy = sy[c];
+            area = -area;
+        }
+        int minX = Math.max(tx0, (int) Math.floor(Math.min(ax, Math.min(bx, qx))));
+        int maxX = Math.min(tx1 - 1, (int) Math.ceil(Math.max(ax, Math.max(bx, qx))));
+        int minY = Math.max(ty0, (int) Math.floor(Math.min(ay, Math.min(by, qy))));
+        int maxY = Math.min(ty1 - 1, (int) Math.ceil(Math.max(ay, Math.max(by, qy))));
+        if (minX > maxX || minY > maxY) return;
+
+        float inv = 1f / area;
+        float wa = invW[a], wb = invW[b], wc = invW[c];
+        float ra = cr[a], rb = cr[b], rc = cr[c];
+        float ga = cg[a], gb = cg[b], gc = cg[c];
+        float ba = cb[a], bb = cb[b], bc = cb[c];
+
+        // 邊函數對 x 的增量
+        float e0dx = -(qy - by), e1dx = -(ay - qy), e2dx = -(by - ay);
+        for (int y = minY; y <= maxY; y++) {
+            float py = y + 0.5f, px = minX + 0.5f;
+            float e0 = (qx - bx) * (py - by) - (qy - by) * (px - bx); // 對應頂點 a
+            float e1 = (ax - qx) * (py - qy) - (ay - qy) * (px - qx); // 對應頂點 b
+            float e2 = (bx - ax) * (py - ay) - (by - ay) * (px - ax); // 對應頂點 c
+            int idx = y * width + minX;
+            for (int x = minX; x <= maxX; x++, idx++, e0 += e0dx, e1 += e1dx, e2 += e2dx) {
+                if (e0 < 0 || e1 < 0 || e2 < 0) continue;
+                float l0 = e0 * inv, l1 = e1 * inv, l2 = e2 * inv;
+                float z = l0 * wa + l1 * wb + l2 * wc;
+                if (z <= depth[idx]) continue;
+                depth[idx] = z;
+                int r = (int) (255 * (l0 * ra + l1 * rb + l2 * rc));
+                int g = (int) (255 * (l0 * ga + l1 * gb + l2 * gc));
+                int bl = (int) (255 * (l0 * ba + l1 * bb + l2 * bc));
+                color[idx] = (clamp255(r) << 16) | (clamp255(g) << 8) | clamp255(bl);
+            }
+        }
+    }
+
+    // ===================== 地面格線（深度測試，不寫入深度） =====================
+    private void drawGroundGrid(SpiralProjector projector) {
+        int half = 600, step = 60, pieces = 24;
+        double depthOffset = projector.depth();
+        double[] p = new double[3], q = new double[3];
+        for (int i = -half; i <= half; i += step) {
+            for (int axis = 0; axis < 2; axis++) {
+                for (int k = 0; k < pieces; k++) {
+                    double u0 = -half + 2.0 * half * k / pieces, u1 = -half + 2.0 * half * (k + 1) / pieces;
+                    if (axis == 0) {
+                        projector.projectPoint(u0, i, 0, p);
+                        projector.projectPoint(u1, i, 0, q);
+                    } else {
+                        projector.projectPoint(i, u0, 0, p);
+                        projector.projectPoint(i, u1, 0, q);
+                    }
+                    gridLine(p[0], p[1], 1.0 / Math.max(1, depthOffset + p[2]),
+                             q[0], q[1], 1.0 / Math.max(1, depthOffset + q[2]));
+                }
+            }
+        }
+    }
+
+    private void gridLine(double x0, double y0, double w0, double x1, double y1, double w1) {
+        double dx = x1 - x0, dy = y1 - y0;
+        int steps = (int) Math.ceil(Math.max(Math.abs(dx), Math.abs(dy)));
+        if (steps > 4 * (width + height)) return; // 退化（跑到相機後方）的線段不畫
+        for (int s = 0; s <= steps; s++) {
+            double f = steps == 0 ? 0 : (double) s / steps;
+            int x = (int) Math.round(x0 + dx * f), y = (int) Math.round(y0 + dy * f);
+            if (x < 0 || y < 0 || x >= width || y >= height) continue;
+            int idx = y * width + x;
+            float w = (float) (w0 + (w1 - w0) * f);
+            if (w < depth[idx] * 0.999f) continue; // 被網格遮住
+            color[idx] = blendGray(color[idx]);
+        }
+    }
+
+    /** 以約 10% 不透明度疊上黑色，與原本 alpha 26 的格線相同。 */
+    private static int blendGray(int rgb) {
+        int r = (rgb >> 16) & 0xff, g = (rgb >> 8) & 0xff, b = rgb & 0xff;
+        return ((r * 229 / 255) << 16) | ((g * 229 / 255) << 8) | (b * 229 / 255);
+    }
+
+    private static int clamp255(int v) {
+        return v < 0 ? 0 : (v > 255 ? 255 : v);
+    }
+}
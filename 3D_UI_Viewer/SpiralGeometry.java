@@ -0,0 +1,139 @@
+/**
+ * 螺旋幾何（世界座標）：依參數把頂點寫入 {@link VertexBuffer}。
+ * 參數沒變就不重算，畫面只需重新投影。
+ *
+ * 第 i 個頂點的角度固定為 θ = i·dTheta，因此參數改變時常能重用舊頂點、只算差異：
+ *   圈數增減 → 在尾端追加或截斷；dTheta 變為整數分之一 → 保留舊頂點、只補中間點；
+ *   dTheta 變為整數倍 → 每隔幾個取一個；只改 lift → 只重寫 z。
+ * 重用的前提是半徑函數不變：對數螺旋只看 r0 與 decay；
+ * 阿基米德螺旋的半徑還取決於 thetaMax 與 endRatio，圈數一改就整條重算。
+ */
+final class SpiralGeometry {
+
+    private final VertexBuffer vertices;
+
+    // 每次重新產生就加一，下游快取（例如管狀網格）據此判斷是否過期
+    private int version;
+
+    // 上一次更新實際計算（三角函數 + 半徑）的頂點數，其餘為重用
+    private int lastComputed;
+
+    // 上一次產生時的參數
+    private boolean valid;
+    private double turns;
+    private boolean archimedean;
+    private double decayPerTurn, endRatio, liftPerRad, dTheta, r0;
+
+    SpiralGeometry(VertexBuffer.Layout layout) {
+        this.vertices = new VertexBuffer(layout, 4096);
+    }
+
+    VertexBuffer vertices() { return vertices; }
+    int version() { return version; }
+    int lastComputed() { return lastComputed; }
+
+    /** 參數有變才重新產生；回傳是否重算。 */
+    boolean update(double turns, boolean archimedean, double decayPerTurn, double endRatio,
+                   double liftPerRad, double dTheta, double r0) {
+        if (valid && this.turns == turns && this.archimedean == archimedean
+                && this.decayPerTurn == decayPerTurn && this.endRatio == endRatio
+                && this.liftPerRad == liftPerRad && this.dTheta == dTheta && this.r0 == r0) {
+            return false;
+        }
+        boolean sameRadius = valid && this.archimedean == archimedean && this.r0 == r0
+                && (archimedean ? this.turns == turns && this.endRatio == endRatio
+                                : this.decayPerTurn == decayPerTurn);
+        double oldDTheta = this.dTheta, oldLift = this.liftPerRad;
+        this.turns = turns;
+        this.archimedean = archimedean;
+        this.decayPerTurn = decayPerTurn;
+        this.endRatio = endRatio;
+        this.liftPerRad = liftPerRad;
+        this.dTheta = dTheta;
+        this.r0 = r0;
+        if (!sameRadius || !remap(oldDTheta, oldLift)) generate();
+        valid = true;
+        version++;
+        return true;
+    }
+
+    private int vertexCount() {
+        double thetaMax = turns * Math.PI * 2.0;
+        double n = Math.floor(thetaMax / dTheta + 1e-9) + 1;
+        if (n > Integer.MAX_VALUE) throw new IllegalArgumentException("vertex count " + (long) n + " too large");
+        return (int) n;
+    }
+
+    private void generate() {
+        int n = vertexCount();
+        vertices.setSize(n);
+        for (int i = 0; i < n; i++) computeVertex(i);
+        lastComputed = n;
+    }
+
+    /**
+     * 新舊 dTheta 成整數比時重用舊頂點：新第 j 點落在舊的第 j·old/new 點上。
+     * 加密時由後往前寫、抽稀時由前往後寫，讀取位置都還沒被覆蓋，因此可原地更新。
+     * 回傳 false 表示比例不是整數，需整條重算。
+     */
+    private boolean remap(double oldDTheta, double oldLift) {
+        int oldN = vertices.size();
+        int n = vertexCount();
+        int refine = ratio(oldDTheta, dTheta);   // 新點數約為舊的 refine 倍
+        int decimate = ratio(dTheta, oldDTheta); // 新點數約為舊的 1/decimate
+        if (refine == 0 && decimate == 0) return false;
+
+        vertices.setSize(n);
+        int computed = 0;
+        if (refine == 1 && oldLift == liftPerRad) {
+            // 只改圈數：截斷已由 setSize 完成，追加時只算新的尾段
+            for (int j = oldN; j < n; j++) computeVertex(j);
+            computed = Math.max(0, n - oldN);
+        } else if (refine > 0) {
+            for (int j = n - 1; j >= 0; j--) {
+                int i = j / refine;
+                if (j % refine == 0 && i < oldN) reuse(i, j);
+                else { computeVertex(j); computed++; }
+            }
+        } else {
+            for (int j = 0; j < n; j++) {
+                long i = (long) j * decimate;
+                if (i < oldN) reuse((int) i, j);
+                else { computeVertex(j); computed++; }
+            }
+        }
+        lastComputed = computed;
+        return true;
+    }
+
+    /** a/b 是正整數就回傳該整數，否則回傳 0。 */
+    private static int ratio(double a, double b) {
+        double r = a / b;
+        long k = Math.round(r);
+        return k >= 1 && k <= Integer.MAX_VALUE && Math.abs(r - k) < 1e-9 ? (int) k : 0;
+    }
+
+    /** 舊第 i 點搬到新第 j 點；x、y 不變，z 依目前的 lift 重寫（只是一次乘法）。 */
+    private void reuse(int i, int j) {
+        vertices.set(j, vertices.x(i), vertices.y(i), liftPerRad * (j * dTheta));
+    }
+
+    private void computeVertex(int i) {
+        double theta = i * dTheta;
+        double r = radiusAt(theta, turns * Math.PI * 2.0);
+        vertices.set(i, r * Math.cos(theta), r * Math.sin(theta), liftPerRad * theta);
+    }
+
+    private double radiusAt(double theta, double thetaMax) {
+        if (!archimedean) {
+            // 對數螺旋
+            double twoPi = Math.PI * 2.0;
+            return r0 * Math.pow(decayPerTurn, theta / twoPi);
+        } else {
+            // 阿基米德：線性縮小至 r_end
+            double rEnd = r0 * endRatio;
+            double k = (r0 - rEnd) / thetaMax;
+            return Math.max(rEnd, r0 - k * theta);
+        }
+    }
+}
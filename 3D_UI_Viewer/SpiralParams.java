@@ -0,0 +1,161 @@
+import java.util.Objects;
+
+/**
+ * 一組畫面參數的不可變快照：幾何（圈數、衰減、上升…）、相機與網格設定。
+ * 畫布每一張畫面只讀一份快照；所有輸入先累積在 {@link Builder}，每張畫面最多產生一份新快照。
+ */
+final class SpiralParams {
+
+    static final SpiralParams DEFAULTS = new Builder().build();
+
+    /** 可由滑桿/勾選框控制的參數名稱；順序即錄製檔中的控制項索引。 */
+    static final String[] CONTROL_NAMES = {
+            "archimedean", "turns", "decay", "endRatio", "lift", "yaw", "pitch",
+            "dTheta", "fov", "depth", "mesh", "meshSides", "meshRadius"
+    };
+
+    final double turns;        // 可為小數，動畫補間時圈數連續變化
+    final boolean archimedean;
+    final double decayPerTurn;
+    final double endRatio;     // r_end = r0*endRatio
+    final double liftPerRad;
+    final double yawDeg, pitchDeg;
+    final double dTheta;
+    final double fov, depth;
+    final boolean meshMode;
+    final int meshSides;
+    final double meshRadius;
+
+    private SpiralParams(Builder b) {
+        this.turns = b.turns;
+        this.archimedean = b.archimedean;
+        this.decayPerTurn = b.decayPerTurn;
+        this.endRatio = b.endRatio;
+        this.liftPerRad = b.liftPerRad;
+        this.yawDeg = b.yawDeg;
+        this.pitchDeg = b.pitchDeg;
+        this.dTheta = b.dTheta;
+        this.fov = b.fov;
+        this.depth = b.depth;
+        this.meshMode = b.meshMode;
+        this.meshSides = b.meshSides;
+        this.meshRadius = b.meshRadius;
+    }
+
+    Builder toBuilder() { return new Builder(this); }
+
+    @Override public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SpiralParams)) return false;
+        SpiralParams p = (SpiralParams) o;
+        return turns == p.turns && archimedean == p.archimedean
+                && decayPerTurn == p.decayPerTurn && endRatio == p.endRatio && liftPerRad == p.liftPerRad
+                && yawDeg == p.yawDeg && pitchDeg == p.pitchDeg && dTheta == p.dTheta
+                && fov == p.fov && depth == p.depth
+                && meshMode == p.meshMode && meshSides == p.meshSides && meshRadius == p.meshRadius;
+    }
+
+    @Override public int hashCode() {
+        return Objects.hash(turns, archimedean, decayPerTurn, endRatio, liftPerRad, yawDeg, pitchDeg,
+                dTheta, fov, depth, meshMode, meshSides, meshRadius);
+    }
+
+    /** 參數對應的控制項整數值（滑桿刻度，勾選框為 0/1），用於顯示與錄製。 */
+    int controlValue(String name) {
+        switch (name) {
+            case "archimedean": return archimedean ? 1 : 0;
+            case "turns":       return (int) Math.round(turns);
+            case "decay":       return (int) Math.round(decayPerTurn * 100);
+            case "endRatio":    return (int) Math.round(endRatio * 100);
+            case "lift":        return (int) Math.round(liftPerRad * 10);
+            case "yaw":         return (int) Math.round(yawDeg);
+            case "pitch":       return (int) Math.round(pitchDeg);
+            case "dTheta":      return (int) Math.round(dTheta * 1000);
+            case "fov":         return (int) Math.round(fov);
+            case "depth":       return (int) Math.round(depth);
+            case "mesh":        return meshMode ? 1 : 0;
+            case "meshSides":   return meshSides;
+            case "meshRadius":  return (int) Math.round(meshRadius);
+            default: throw new IllegalArgumentException("unknown control: " + name);
+        }
+    }
+
+    /** 可變的參數累積器；每個 setter 都會把值夾在合法範圍內。 */
+    static final class Builder {
+        private double turns = 6;
+        private boolean archimedean = false;
+        private double decayPerTurn = 0.75;
+        private double endRatio = 0.08;
+        private double liftPerRad = 2.0;
+        private double yawDeg = 35.0;
+        private double pitchDeg = 25.0;
+        private double dTheta = 0.01;
+        private double fov = 850.0;
+        private double depth = 300.0;
+        private boolean meshMode = false;
+        private int meshSides = 8;
+        private double meshRadius = 4.0;
+
+        Builder() { }
+
+        Builder(SpiralParams p) {
+            turns = p.turns;
+            archimedean = p.archimedean;
+            decayPerTurn = p.decayPerTurn;
+            endRatio = p.endRatio;
+            liftPerRad = p.liftPerRad;
+            yawDeg = p.yawDeg;
+            pitchDeg = p.pitchDeg;
+            dTheta = p.dTheta;
+            fov = p.fov;
+            depth = p.depth;
+            meshMode = p.meshMode;
+            meshSides = p.meshSides;
+            meshRadius = p.meshRadius;
+        }
+
+        double yawDeg() { return yawDeg; }
+        double pitchDeg() { return pitchDeg; }
+        double fov() { return fov; }
+
+        Builder turns(double t) { turns = Math.max(1, t); return this; }
+        Builder archimedean(boolean b) { archimedean = b; return this; }
+        Builder decayPerTurn(double d) { decayPerTurn = clamp(d, 0.5, 0.98); return this; }
+        Builder endRatio(double r) { endRatio = clamp(r, 0.02, 0.5); return this; }
+        Builder liftPerRad(double l) { liftPerRad = clamp(l, 0, 8.0); return this; }
+        Builder yawDeg(double d) { yawDeg = d; return this; }
+        Builder pitchDeg(double d) { pitchDeg = clamp(d, -20, 80); return this; }
+        Builder dTheta(double dt) { dTheta = clamp(dt, 0.001, 0.05); return this; }
+        Builder fov(double f) { fov = clamp(f, 200, 2000); return this; }
+        Builder depth(double d) { depth = clamp(d, 50, 2000); return this; }
+        Builder meshMode(boolean b) { meshMode = b; return this; }
+        Builder meshSides(int s) { meshSides = Math.max(2, Math.min(16, s)); return this; }
+        Builder meshRadius(double r) { meshRadius = clamp(r, 0.5, 40); return this; }
+
+        /** 依控制項名稱套用整數值（{@link SpiralParams#controlValue} 的反向）。 */
+        Builder control(String name, int value) {
+            switch (name) {
+                case "archimedean": return archimedean(value != 0);
+                case "turns":       return turns(value);
+                case "decay":       return decayPerTurn(value / 100.0);
+                case "endRatio":    return endRatio(value / 100.0);
+                case "lift":        return liftPerRad(value / 10.0);
+                case "yaw":         return yawDeg(value);
+                case "pitch":       return pitchDeg(value);
+                case "dTheta":      return dTheta(value / 1000.0);
+                case "fov":         return fov(value);
+                case "depth":       return depth(value);
+                case "mesh":        return meshMode(value != 0);
+                case "meshSides":   return meshSides(value);
+                case "meshRadius":  return meshRadius(value);
+                default: throw new IllegalArgumentException("unknown control: " + name);
+            }
+        }
+
+        SpiralParams build() { return new SpiralParams(this); }
+    }
+
+    private static double clamp(double v, double lo, double hi) {
+        return Math.max(lo, Math.min(hi, v));
+    }
+}
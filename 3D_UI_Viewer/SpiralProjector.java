@@ -0,0 +1,79 @@
+/**
+ * 透視投影：把世界座標頂點批次轉成螢幕座標，結果寫入另一個 {@link VertexBuffer}
+ * （x = 螢幕 x、y = 螢幕 y、z = 相機座標 Z，供深度著色使用）。
+ * 每個投影器只寫自己的輸出緩衝區，因此多個投影器可同時讀取同一份世界座標。
+ */
+final class SpiralProjector {
+
+    private double cazim, sazim, cyaw, syaw, cpitch, spitch, fov, depth;
+    private int cx, cy;
+
+    /** 設定相機；角度以度為單位。 */
+    void setCamera(int cx, int cy, double yawDeg, double pitchDeg, double fov, double depth) {
+        setCamera(cx, cy, 0, yawDeg, pitchDeg, fov, depth);
+    }
+
+    /**
+     * @param azimuthDeg 先繞螺旋軸（世界 Z 軸）旋轉，用來取得側視等固定視角
+     */
+    void setCamera(int cx, int cy, double azimuthDeg, double yawDeg, double pitchDeg, double fov, double depth) {
+        double azim = Math.toRadians(azimuthDeg);
+        double yaw = Math.toRadians(yawDeg);
+        double pitch = Math.toRadians(pitchDeg);
+        this.cazim = Math.cos(azim);
+        this.sazim = Math.sin(azim);
+        this.cyaw = Math.cos(yaw);
+        this.syaw = Math.sin(yaw);
+        this.cpitch = Math.cos(pitch);
+        this.spitch = Math.sin(pitch);
+        this.fov = fov;
+        this.depth = depth;
+        this.cx = cx;
+        this.cy = cy;
+    }
+
+    double depth() { return depth; }
+
+    void project(VertexBuffer world, VertexBuffer screen) {
+        int n = world.size();
+        screen.setSize(n);
+        double[] p = new double[3];
+        for (int i = 0; i < n; i++) {
+            projectPoint(world.x(i), world.y(i), world.z(i), p);
+            screen.set(i, Math.round(p[0]), Math.round(p[1]), p[2]);
+        }
+    }
+
+    /** 投影單一點，out = {螢幕 x, 螢幕 y, 相機 Z}（未取整）。 */
+    void projectPoint(double x, double y, double z, double[] out) {
+        // Azimuth（繞 Z 軸）
+        double x0 = cazim * x - sazim * y;
+        double y0 = sazim * x + cazim * y;
+        // Yaw
+        double x1 =  cyaw * x0 + syaw * z;
+        double y1 =  y0;
+        double z1 = -syaw * x0 + cyaw * z;
+        // Pitch
+        double x2 = x1;
+        double y2 =  cpitch * y1 - spitch * z1;
+        double z2 =  spitch * y1 + cpitch * z1;
+
+        double denom = (depth + z2);
+        if (denom < 1) denom = 1;
+
+        out[0] = cx + (fov * x2) / denom;
+        out[1] = cy - (fov * y2) / denom;
+        out[2] = z2;
+    }
+
+    /** 只旋轉不投影（用於法向量），out = 相機座標下的方向。 */
+    void rotateVector(double x, double y, double z, double[] out) {
+        double x0 = cazim * x - sazim * y;
+        double y0 = sazim * x + cazim * y;
+        double x1 =  cyaw * x0 + syaw * z;
+        double z1 = -syaw * x0 + cyaw * z;
+        out[0] = x1;
+        out[1] = cpitch * y0 - spitch * z1;
+        out[2] = spitch * y0 + cpitch * z1;
+    }
+}
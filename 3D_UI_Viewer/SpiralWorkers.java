@@ -0,0 +1,42 @@
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 光柵化、四視圖投影與粒子共用的執行緒池（daemon，大小為 CPU 數）。
+ * 三者都在 EDT 上依序呼叫 {@link #runAll}，不會同時搶池子；任務本身不可再呼叫 runAll，否則可能互等。
+ */
+final class SpiralWorkers {
+
+    static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+    private static final ExecutorService POOL = Executors.newFixedThreadPool(THREADS, r -> {
+        Thread t = new Thread(r, "spiral-worker");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private SpiralWorkers() {}
+
+    /** 執行所有任務並等待完成；只有一個任務時直接在呼叫端執行。任務丟出的例外包成 IllegalStateException。 */
+    static void runAll(List<? extends Callable<Void>> tasks) {
+        try {
+            if (tasks.size() == 1) {
+                tasks.get(0).call();
+                return;
+            }
+            for (Future<Void> f : POOL.invokeAll(tasks)) f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * 無螢幕時的啟動量測（startup-bench.sh 在沒有 DISPLAY 時使用）。
+ * 不能建立 JFrame，因此改成把畫布與控制面板畫進 BufferedImage，但走的是同一條路徑：
+ * Swing/L&F 初始化、建立同一個 {@link ConicalSpiral3DInteractive.ControlPanel}、SpiralPanel 的草稿與完整畫質畫面，
+ * 時間點由 {@link StartupProfile} 記錄。與實際視窗相比少了建立視窗與連線顯示伺服器的時間。
+ *
+ *   java -Djava.awt.headless=true -Dspiral.exitAfterFirstFrame=true [-Dspiral.fastStart=true] StartupBench
+ */
+public class StartupBench {
+
+    private static final int WIDTH = 900, HEIGHT = 800;
+
+    public static void main(String[] args) {
+        StartupProfile.mark("main");
+        boolean fastStart = Boolean.getBoolean("spiral.fastStart");
+        SwingUtilities.invokeLater(() -> {
+            BufferedImage image = new BufferedImage(WIDTH + 300, HEIGHT, BufferedImage.TYPE_INT_RGB);
+            ConicalSpiral3DInteractive.SpiralPanel canvas = new ConicalSpiral3DInteractive.SpiralPanel();
+            canvas.setSize(WIDTH, HEIGHT);
+            Runnable controls = () -> {
+                paintControls(canvas, image);
+                StartupProfile.mark("controls ready");
+            };
+            if (fastStart) {
+                canvas.startWithDraft(controls);
+                paintCanvas(canvas, image);
+                // 草稿畫完後 SpiralPanel 以 invokeLater 建立控制項並 repaint；
+                // 沒有視窗時 repaint 不會發生，這裡排在它後面補畫完整畫質
+                SwingUtilities.invokeLater(() -> paintCanvas(canvas, image));
+            } else {
+                controls.run();
+                paintCanvas(canvas, image);
+            }
+        });
+    }
+
+    private static void paintCanvas(JComponent canvas, BufferedImage image) {
+        Graphics2D g2 = image.createGraphics();
+        canvas.paint(g2);
+        g2.dispose();
+    }
+
+    /** 建立互動版的控制面板（不綁監聽器）並畫出來。 */
+    private static void paintControls(ConicalSpiral3DInteractive.SpiralPanel canvas, BufferedImage image) {
+        JPanel panel = new ConicalSpiral3DInteractive.ControlPanel(canvas);
+        panel.setSize(300, HEIGHT);
+        layoutTree(panel);
+        Graphics2D g2 = image.createGraphics();
+        g2.translate(WIDTH, 0);
+        panel.paint(g2);
+        g2.dispose();
+    }
+
+    private static void layoutTree(Container c) {
+        c.doLayout();
+        for (Component child : c.getComponents()) {
+            if (child instanceof Container) layoutTree((Container) child);
+        }
+    }
+}
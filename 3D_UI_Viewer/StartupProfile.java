@@ -0,0 +1,29 @@
+import java.lang.management.ManagementFactory;
+
+/**
+ * 啟動時間紀錄：以 JVM 啟動為零點，把各階段的時間印到 stderr。
+ * 加上 -Dspiral.startupProfile=true 啟用；-Dspiral.exitAfterFirstFrame=true
+ * 會在第一張完整畫面畫完後結束程式（給 startup-bench.sh 量測用）。
+ */
+final class StartupProfile {
+
+    static final boolean EXIT_AFTER_FIRST_FRAME = Boolean.getBoolean("spiral.exitAfterFirstFrame");
+    static final boolean ENABLED = EXIT_AFTER_FIRST_FRAME || Boolean.getBoolean("spiral.startupProfile");
+
+    // 只有啟用時才載入 JMX，避免一般啟動多付出類別載入的成本
+    private static final long JVM_START_MS = ENABLED ? ManagementFactory.getRuntimeMXBean().getStartTime() : 0L;
+
+    private StartupProfile() {}
+
+    static void mark(String event) {
+        if (!ENABLED) return;
+        long t = System.currentTimeMillis() - JVM_START_MS;
+        System.err.printf("[startup] %6d ms  %s%n", t, event);
+    }
+
+    /** 第一張完整畫質的畫面完成。 */
+    static void fullFrameDone() {
+        mark("full frame");
+        if (EXIT_AFTER_FIRST_FRAME) System.exit(0);
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * 管狀 / 緞帶網格：沿螺旋中心線擠出截面。
+ * 截面邊數 2 為緞帶（寬度沿垂直方向），3 以上為封閉的管子。
+ * 座標系用平行移動（parallel transport）沿線傳遞，避免 Frenet 標架在曲率小時翻轉。
+ * 三角形不另存索引：第 r 與 r+1 圈之間的第 s 個四邊形由 (r, s)、(r, s+1)、(r+1, s)、(r+1, s+1) 組成。
+ */
+final class TubeMesh {
+
+    /** 三角形上限；中心線頂點太多時，每隔幾個頂點才放一圈截面。 */
+    static final int MAX_TRIANGLES = 400_000;
+
+    private final VertexBuffer positions = new VertexBuffer(VertexBuffer.Layout.FLOAT32, 4096);
+    private final VertexBuffer normals = new VertexBuffer(VertexBuffer.Layout.FLOAT32, 4096);
+
+    private int rings, sides;
+    private double radius;
+    private int sourceVersion = -1;
+    private SpiralGeometry source;
+
+    VertexBuffer positions() { return positions; }
+    VertexBuffer normals() { return normals; }
+    int rings() { return rings; }
+    int sides() { return sides; }
+
+    /** 每兩圈之間的四邊形數：緞帶只有一片，管子每邊一片。 */
+    int quadsPerSegment() { return sides > 2 ? sides : 1; }
+
+    int triangleCount() { return rings < 2 ? 0 : (rings - 1) * quadsPerSegment() * 2; }
+
+    int vertexIndex(int ring, int side) { return ring * sides + (side % sides); }
+
+    /** 中心線或截面設定有變才重建；回傳是否重建。 */
+    boolean update(SpiralGeometry geometry, int sides, double radius) {
+        sides = Math.max(2, sides);
+        if (geometry == source && geometry.version() == sourceVersion
+                && this.sides == sides && this.radius == radius) {
+            return false;
+        }
+        this.source = geometry;
+        this.sourceVersion = geometry.version();
+        this.sides = sides;
+        this.radius = radius;
+        build(geometry.vertices());
+        return true;
+    }
+
+    private void build(VertexBuffer line) {
+        int n = line.size();
+        if (n < 2) {
+            rings = 0;
+            positions.clear();
+            normals.clear();
+            return;
+        }
+        int quads = quadsPerSegment();
+        int step = (int) Math.max(1, Math.ceil((double) n * quads * 2 / MAX_TRIANGLES));
+        rings = (n - 1 + step - 1) / step + 1;
+        positions.setSize(rings * sides);
+        normals.setSize(rings * sides);
+
+        double[] t = new double[3], nrm = new double[3], b = new double[3];
+        for (int r = 0; r < rings; r++) {
+            int i = Math.min(r * step, n - 1);
+            tangent(line, i, step, t);
+            if (r == 0) {
+                // 初始法向量取最接近世界 Z 軸（上方）的垂直方向，緞帶因此是直立的
+                nrm[0] = -t[2] * t[0];
+                nrm[1] = -t[2] * t[1];
+                nrm[2] = 1 - t[2] * t[2];
+                if (!normalize(nrm)) { nrm[0] = 1; nrm[1] = 0; nrm[2] = 0; }
+            } else {
+                // 平行移動：把上一圈的法向量投影到新的垂直平面
+                double d = dot(nrm, t);
+                nrm[0] -= d * t[0];
+                nrm[1] -= d * t[1];
+                nrm[2] -= d * t[2];
+                normalize(nrm);
+            }
+            cross(t, nrm, b);
+
+            double px = line.x(i), py = line.y(i), pz = line.z(i);
+            if (sides == 2) {
+                // 緞帶：兩側沿法向量展開，面法向量為副法向量
+                positions.set(vertexIndex(r, 0), px - radius * nrm[0], py - radius * nrm[1], pz - radius * nrm[2]);
+                positions.set(vertexIndex(r, 1), px + radius * nrm[0], py + radius * nrm[1], pz + radius * nrm[2]);
+                normals.set(vertexIndex(r, 0), b[0], b[1], b[2]);
+                normals.set(vertexIndex(r, 1), b[0], b[1], b[2]);
+            } else {
+                for (int s = 0; s < sides; s++) {
+                    double a = 2 * Math.PI * s / sides;
+                    double ca = Math.cos(a), sa = Math.sin(a);
+                    double ox = ca * nrm[0] + sa * b[0];
+                    double oy = ca * nrm[1] + sa * b[1];
+                    double oz = ca * nrm[2] + sa * b[2];
+                    positions.set(vertexIndex(r, s), px + radius * ox, py + radius * oy, pz + radius * oz);
+                    normals.set(vertexIndex(r, s), ox, oy, oz);
+                }
+            }
+        }
+    }
+
+    /** 以前後鄰點的差估計切線方向。 */
+    private static void tangent(VertexBuffer line, int i, int step, double[] out) {
+        int n = line.size();
+        int a = Math.max(0, i - step), c = Math.min(n - 1, i + step);
+        out[0] = line.x(c) - line.x(a);
+        out[1] = line.y(c) - line.y(a);
+        out[2] = line.z(c) - line.z(a);
+        if (!normalize(out)) { out[0] = 1; out[1] = 0; out[2] = 0; }
+    }
+
+    private static double dot(double[] a, double[] b) {
+        return a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
+    }
+
+    private static void cross(double[] a, double[] b, double[] out) {
+        out[0] = a[1] * b[2] - a[2] * b[1];
+        out[1] = a[2] * b[0] - a[0] * b[2];
+        out[2] = a[0] * b[1] - a[1] * b[0];
+    }
+
+    private static boolean normalize(double[] v) {
+        double len = Math.sqrt(dot(v, v));
+        if (len < 1e-12) return false;
+        v[0] /= len;
+        v[1] /= len;
+        v[2] /= len;
+        return true;
+    }
+}
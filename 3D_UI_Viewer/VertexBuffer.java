@@ -0,0 +1,144 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * 頂點緩衝區：把 (x, y, z) 連續存放在 heap 之外（direct ByteBuffer）。
+ * 產生器、投影與匯出（{@link VertexExporter}）都直接讀寫同一塊記憶體，不再複製 double[]，
+ * 因此頂點數再多，heap 與 GC 的負擔也維持不變（VertexExporter 會回報 heap 使用量與 GC 次數）。
+ *
+ * 注意：與 Arena 不同，{@link #close()} 不會立即釋放記憶體。direct buffer 要等 GC 回收
+ * 外層物件後才由 cleaner 釋放；close 只切斷引用，讓它可以被回收。
+ * direct 記憶體總量受 -XX:MaxDirectMemorySize 限制（預設等於 -Xmx）。
+ */
+final class VertexBuffer implements AutoCloseable {
+
+    /** 每個分量的儲存格式：float32 省一半記憶體，float64 保留完整精度。 */
+    enum Layout {
+        FLOAT32(4), FLOAT64(8);
+
+        final int bytes;
+        Layout(int bytes) { this.bytes = bytes; }
+
+        /** 由系統屬性（例如 -Dspiral.vertexLayout=float32）決定；未設定時用 fallback，拼錯則丟出例外。 */
+        static Layout fromProperty(String key, Layout fallback) {
+            String v = System.getProperty(key);
+            if (v == null) return fallback;
+            try {
+                return parse(v);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("-D" + key + ": " + e.getMessage());
+            }
+        }
+
+        /** 只接受 float32 / float64（不分大小寫）。 */
+        static Layout parse(String name) {
+            if ("float32".equalsIgnoreCase(name)) return FLOAT32;
+            if ("float64".equalsIgnoreCase(name)) return FLOAT64;
+            throw new IllegalArgumentException("unknown vertex layout '" + name + "' (expected float32 or float64)");
+        }
+    }
+
+    static final int STRIDE = 3; // x, y, z
+
+    private final Layout layout;
+    private ByteBuffer segment;
+    private FloatBuffer floats;
+    private DoubleBuffer doubles;
+    private int capacity;
+    private int size;
+
+    VertexBuffer(Layout layout, int initialCapacity) {
+        this.layout = layout;
+        allocate(Math.max(16, initialCapacity));
+    }
+
+    Layout layout() { return layout; }
+    int size() { return size; }
+    int capacity() { return capacity; }
+
+    void clear() { size = 0; }
+
+    /** 設定頂點數；容量不足時自動擴充（舊內容會保留）。 */
+    void setSize(int n) {
+        ensureCapacity(n);
+        size = n;
+    }
+
+    void ensureCapacity(int n) {
+        if (n <= capacity) return;
+        int grown = (int) Math.min(maxVertices(layout), Math.max((long) n, capacity + (capacity >> 1)));
+        if (grown < n) {
+            throw new IllegalArgumentException("vertex count " + n + " exceeds " + maxVertices(layout) + " for " + layout);
+        }
+        ByteBuffer old = segment;
+        int usedBytes = size * STRIDE * layout.bytes;
+        allocate(grown);
+        old.clear().limit(usedBytes);
+        segment.put(old);
+        segment.clear();
+    }
+
+    double x(int i) { return get(i * STRIDE); }
+    double y(int i) { return get(i * STRIDE + 1); }
+    double z(int i) { return get(i * STRIDE + 2); }
+
+    void set(int i, double x, double y, double z) {
+        int k = i * STRIDE;
+        if (layout == Layout.FLOAT32) {
+            floats.put(k, (float) x);
+            floats.put(k + 1, (float) y);
+            floats.put(k + 2, (float) z);
+        } else {
+            doubles.put(k, x);
+            doubles.put(k + 1, y);
+            doubles.put(k + 2, z);
+        }
+    }
+
+    /** 追加一個頂點，回傳其索引。 */
+    int add(double x, double y, double z) {
+        ensureCapacity(size + 1);
+        set(size, x, y, z);
+        return size++;
+    }
+
+    /** 唯讀視圖：與本緩衝區共用同一塊記憶體，不複製。 */
+    ByteBuffer segment() {
+        ByteBuffer view = segment.asReadOnlyBuffer().order(ByteOrder.nativeOrder());
+        view.limit(size * STRIDE * layout.bytes);
+        return view;
+    }
+
+    /** 匯出原始頂點資料（native byte order），直接由 off-heap 記憶體寫出。 */
+    void writeTo(WritableByteChannel out) throws IOException {
+        ByteBuffer view = segment();
+        while (view.hasRemaining()) out.write(view);
+    }
+
+    /** 只切斷引用（記憶體由 GC 的 cleaner 稍後釋放，見類別說明）；之後不可再使用。 */
+    @Override public void close() {
+        segment = null;
+        floats = null;
+        doubles = null;
+        capacity = size = 0;
+    }
+
+    private double get(int k) {
+        return layout == Layout.FLOAT32 ? floats.get(k) : doubles.get(k);
+    }
+
+    private void allocate(int vertices) {
+        segment = ByteBuffer.allocateDirect(vertices * STRIDE * layout.bytes).order(ByteOrder.nativeOrder());
+        floats = layout == Layout.FLOAT32 ? segment.asFloatBuffer() : null;
+        doubles = layout == Layout.FLOAT64 ? segment.asDoubleBuffer() : null;
+        capacity = vertices;
+    }
+
+    private static int maxVertices(Layout layout) {
+        return Integer.MAX_VALUE / (STRIDE * layout.bytes);
+    }
+}
@@ -0,0 +1,114 @@
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Locale;
+
+/**
+ * 無視窗匯出螺旋的世界座標頂點（可到數千萬點）。
+ * 產生器寫入的 {@link VertexBuffer} 直接由 off-heap 記憶體寫進檔案，中間不經過 double[]。
+ *
+ *   java VertexExporter out.bin [--preset turns=10,decay=85] [--turns 12] [--dtheta 0.00001]
+ *        [--layout float32|float64] [--r0 304]
+ *
+ * --preset 使用控制項刻度（見 {@link SpiralParams#CONTROL_NAMES}）；--turns 與 --dtheta 為實際數值，
+ * 不受滑桿範圍限制。檔案格式：16 位元組檔頭
+ *   "SPV1"、位元組順序（0 = little endian, 1 = big endian）、每分量位元組數（4 或 8）、2 位元組保留、頂點數（long，同上順序）
+ * 之後是 x, y, z 連續存放的頂點。結束時回報耗時、heap 使用量與 GC 次數/時間。
+ */
+public class VertexExporter {
+
+    public static void main(String[] args) throws IOException {
+        File out = null;
+        SpiralParams p = SpiralParams.DEFAULTS;
+        double turns = Double.NaN, dTheta = Double.NaN, r0 = 800 * 0.38;
+        VertexBuffer.Layout layout = VertexBuffer.Layout.FLOAT64;
+        for (int i = 0; i < args.length; i++) {
+            try {
+                switch (args[i]) {
+                    case "--preset": p = MorphPlayer.parsePreset(SpiralParams.DEFAULTS, args[++i]); break;
+                    case "--turns":  turns = Double.parseDouble(args[++i]); break;
+                    case "--dtheta": dTheta = Double.parseDouble(args[++i]); break;
+                    case "--r0":     r0 = Double.parseDouble(args[++i]); break;
+                    case "--layout": layout = VertexBuffer.Layout.parse(args[++i]); break;
+                    default:
+                        if (args[i].startsWith("--") || out != null) usage("unknown option: " + args[i]);
+                        out = new File(args[i]);
+                }
+            } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+                usage(args[i] + ": " + (e.getMessage() != null ? e.getMessage() : "missing value"));
+            }
+        }
+        if (out == null) usage(null);
+        if (Double.isNaN(turns)) turns = p.turns;
+        if (Double.isNaN(dTheta)) dTheta = p.dTheta;
+        if (!(turns > 0) || !(dTheta > 0)) usage("turns and dtheta must be positive");
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long gcCount0 = gcCount(), gcMillis0 = gcMillis();
+        long start = System.nanoTime();
+
+        SpiralGeometry geometry = new SpiralGeometry(layout);
+        try {
+            geometry.update(turns, p.archimedean, p.decayPerTurn, p.endRatio, p.liftPerRad, dTheta, r0);
+        } catch (IllegalArgumentException e) {
+            usage(e.getMessage());
+        } catch (OutOfMemoryError e) {
+            // direct buffer 的上限預設等於 -Xmx
+            usage(e.getMessage() + "; raise -XX:MaxDirectMemorySize or use --layout float32");
+        }
+        VertexBuffer vertices = geometry.vertices();
+        long generated = System.nanoTime();
+        long bytes = write(vertices, out);
+        long written = System.nanoTime();
+        long heapUsed = memory.getHeapMemoryUsage().getUsed();
+        int count = vertices.size();
+        vertices.close();
+
+        System.out.printf(Locale.ROOT, "%d vertices (%s, %.1f MB) -> %s%n",
+                count, layout, bytes / 1e6, out);
+        System.out.printf(Locale.ROOT, "generate %.2f s, write %.2f s; heap used %.1f MB; GC %d runs, %d ms%n",
+                (generated - start) / 1e9, (written - generated) / 1e9, heapUsed / 1e6,
+                gcCount() - gcCount0, gcMillis() - gcMillis0);
+    }
+
+    /** 寫出檔頭與頂點；頂點資料是 {@link VertexBuffer#segment()} 的零複製視圖。 */
+    static long write(VertexBuffer vertices, File out) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(16).order(ByteOrder.nativeOrder());
+        header.put((byte) 'S').put((byte) 'P').put((byte) 'V').put((byte) '1');
+        header.put((byte) (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? 0 : 1));
+        header.put((byte) vertices.layout().bytes);
+        header.putShort((short) 0);
+        header.putLong(vertices.size());
+        header.flip();
+        try (FileChannel ch = new FileOutputStream(out).getChannel()) {
+            while (header.hasRemaining()) ch.write(header);
+            vertices.writeTo(ch);
+            return ch.position();
+        }
+    }
+
+    private static long gcCount() {
+        long n = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) n += Math.max(0, gc.getCollectionCount());
+        return n;
+    }
+
+    private static long gcMillis() {
+        long n = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) n += Math.max(0, gc.getCollectionTime());
+        return n;
+    }
+
+    private static void usage(String error) {
+        if (error != null) System.err.println(error);
+        System.err.println("usage: VertexExporter <out.bin> [--preset k=v,...] [--turns 12] [--dtheta 0.00001] "
+                + "[--layout float32|float64] [--r0 304]");
+        System.exit(2);
+    }
+}
@@ -0,0 +1,54 @@
+#!/usr/bin/env bash
+# 啟動時間基準：比較「一般啟動」、「快速啟動」、「快速啟動 + AppCDS」
+# 從 JVM 啟動到第一次 paintComponent 完成（first frame）與完整畫質畫面（full frame）的中位數。
+#
+# 需求：JDK 13 以上（動態 AppCDS 封存 -XX:ArchiveClassesAtExit）。
+# 有桌面環境（或 xvfb-run）時量測真正的視窗；沒有 DISPLAY 時改用 StartupBench 無頭量測
+# （同一個 ControlPanel 與畫面路徑，畫進 BufferedImage，不綁監聽器、不含建立視窗的時間）。HEADLESS=1 可強制無頭。
+# 用法：RUNS=15 ./startup-bench.sh
+set -euo pipefail
+cd "$(dirname "$0")"
+
+RUNS=${RUNS:-10}
+OUT=build/startup
+CLASSES=$OUT/classes
+JAR=$OUT/spiral.jar
+JSA=$OUT/spiral.jsa
+
+rm -rf "$OUT"
+mkdir -p "$CLASSES"
+javac -encoding UTF-8 -d "$CLASSES" ConicalSpiral3DInteractive.java StartupBench.java
+# CDS 只接受 JAR 形式的 classpath（不能是非空目錄），三種模式都用同一個 JAR 才公平
+jar cf "$JAR" -C "$CLASSES" .
+
+if [[ -n "${DISPLAY:-}" && "${HEADLESS:-0}" != 1 ]]; then
+    MAIN=(ConicalSpiral3DInteractive)
+    MODE="window"
+else
+    MAIN=(-Djava.awt.headless=true StartupBench)
+    MODE="headless (StartupBench)"
+fi
+
+# AppCDS：跑一次快速啟動，把載入過的類別（Swing、L&F、本程式）封存起來
+java -XX:ArchiveClassesAtExit="$JSA" -Dspiral.fastStart=true -Dspiral.exitAfterFirstFrame=true \
+     -cp "$JAR" "${MAIN[@]}" > /dev/null 2>&1
+
+median() { sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'; }
+
+measure() {
+    local label=$1; shift
+    local first=() full=()
+    for _ in $(seq "$RUNS"); do
+        local log
+        log=$(java "$@" -Dspiral.exitAfterFirstFrame=true -cp "$JAR" "${MAIN[@]}" 2>&1 >/dev/null)
+        first+=("$(awk '/\[startup\].*first frame/ { print $2; exit }' <<< "$log")")
+        full+=("$(awk '/\[startup\].*full frame/ { print $2; exit }' <<< "$log")")
+    done
+    printf '%-24s first frame %6s ms   full frame %6s ms\n' "$label" \
+        "$(printf '%s\n' "${first[@]}" | median)" "$(printf '%s\n' "${full[@]}" | median)"
+}
+
+echo "$MODE, runs per mode: $RUNS (median, ms since JVM start)"
+measure "default"
+measure "fast start" -Dspiral.fastStart=true
+measure "fast start + AppCDS" -Dspiral.fastStart=true -XX:SharedArchiveFile="$JSA"
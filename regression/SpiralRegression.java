@@ -0,0 +1,495 @@
+import javax.imageio.ImageIO;
+import javax.swing.JComponent;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * 無頭（headless）效能回歸測試：四個畫面各以固定參數畫進 BufferedImage，
+ * 與 golden 影像比對，並檢查每張畫面的時間中位數與配置量是否超出預算。
+ *
+ * 用法（見 run.sh）：
+ *   java SpiralRegression            比對 golden 與預算，有任何失敗就以 exit code 1 結束
+ *   java SpiralRegression --update   重新產生所有案例的 golden 影像與預算（預算 = 量測值 × 2）
+ *   java SpiralRegression --update a b   只重新產生案例 a、b（新增案例時用，其他案例的基準不動）
+ * 檢查模式下缺少 golden 或預算視為失敗，不會自動補上。
+ * 另外以固定的參數序列檢查 {@link SpiralGeometry} 的增量更新與全新產生逐點一致（兩種頂點格式）。
+ */
+public class SpiralRegression {
+
+    private static final int WARMUP_FRAMES = 30;
+    private static final int MEASURED_FRAMES = 40;
+    private static final double BUDGET_HEADROOM = 2.0;
+    // 相對成本交替量測的輪數；雜訊只會讓時間變長，兩邊各取最快的一輪
+    private static final int RATIO_ROUNDS = 3;
+
+    // 影像比對：先做 3×3 模糊（容忍反鋸齒造成的 1px 偏移），亮度差超過門檻的像素比例不得超過上限
+    private static final double PIXEL_THRESHOLD = 0.10;
+    private static final double MAX_DIFF_RATIO = 0.005;
+
+    private static final File DIR = new File(System.getProperty("spiral.regressionDir", "."));
+    private static final File GOLDEN_DIR = new File(DIR, "golden");
+    private static final File BUDGET_FILE = new File(DIR, "budgets.properties");
+    private static final File OUT_DIR = new File(DIR, "build/regression-out");
+
+    // 測試案例：名稱 + 畫布大小 + 建立已設定好參數的畫布；
+    // relativeTo 不為 null 時另外檢查「本案例時間 ÷ 該案例時間」不超過 maxRatio（<name>.ratio）。
+    // maxRatio 來自需求本身而不是量測值 × 2：後者會隨量測放寬，擋不住這個門檻要防的退化
+    private static final class Case {
+        final String name;
+        final int width, height;
+        final Supplier<JComponent> factory;
+        final String relativeTo;
+        final double maxRatio;
+
+        Case(String name, int width, int height, Supplier<JComponent> factory) {
+            this(name, width, height, factory, null, Double.NaN);
+        }
+
+        Case(String name, int width, int height, Supplier<JComponent> factory, String relativeTo, double maxRatio) {
+            this.name = name;
+            this.width = width;
+            this.height = height;
+            this.factory = factory;
+            this.relativeTo = relativeTo;
+            this.maxRatio = maxRatio;
+        }
+    }
+
+    private static List<Case> cases() {
+        List<Case> list = new ArrayList<>();
+        list.add(new Case("spiral2d-default", 900, 900, SpiralDemo::new));
+        list.add(new Case("conical3d-default", 1000, 800, ConicalSpiral3D::new));
+        list.add(new Case("ui-default", 900, 800, ConicalSpiral3DUI.SpiralPanel::new));
+        list.add(new Case("ui-archimedean", 900, 800, () -> {
+            ConicalSpiral3DUI.SpiralPanel p = new ConicalSpiral3DUI.SpiralPanel();
+            p.setArchimedean(true);
+            p.setTurns(10);
+            p.setEndRatio(0.12);
+            p.setLiftPerRad(3.0);
+            p.setDTheta(0.002);
+            return p;
+        }));
+        list.add(new Case("interactive-default", 900, 800, ConicalSpiral3DInteractive.SpiralPanel::new));
+        list.add(new Case("interactive-multiview", 900, 800,
+                // 四個視窗共用幾何，成本要明顯低於四倍單一視窗（實測約 1.8–1.9 倍）
+                () -> new MultiViewCanvas(new ConicalSpiral3DInteractive.SpiralPanel()), "interactive-default", 2.5));
+        list.add(new Case("interactive-dense", 900, 800, () -> {
+            ConicalSpiral3DInteractive.SpiralPanel p = new ConicalSpiral3DInteractive.SpiralPanel();
+            p.setTurns(12);
+            p.setDTheta(0.001);
+            p.setYawDeg(-60);
+            p.setPitchDeg(50);
+            p.setFov(1100);
+            return p;
+        }));
+        list.add(new Case("interactive-archimedean", 900, 800, () -> {
+            ConicalSpiral3DInteractive.SpiralPanel p = new ConicalSpiral3DInteractive.SpiralPanel();
+            p.setArchimedean(true);
+            p.setTurns(8);
+            p.setLiftPerRad(4.0);
+            p.setDepth(600);
+            return p;
+        }));
+        list.add(new Case("interactive-scrub-turns", 900, 800, () -> {
+            // 每張畫面圈數在 11、12 之間來回（模擬拖曳圈數滑桿），量的是增量更新幾何的成本
+            ConicalSpiral3DInteractive.SpiralPanel p = new ConicalSpiral3DInteractive.SpiralPanel() {
+                private int frame;
+                @Override protected void paintComponent(Graphics g) {
+                    setTurns(11 + (frame++ & 1));
+                    super.paintComponent(g);
+                }
+            };
+            p.setDTheta(0.001);
+            return p;
+        }));
+        list.add(new Case("interactive-tube", 900, 800, () -> {
+            ConicalSpiral3DInteractive.SpiralPanel p = new ConicalSpiral3DInteractive.SpiralPanel();
+            p.setMeshMode(true);
+            p.setMeshSides(8);
+            p.setLiftPerRad(5.0);
+            p.setPitchDeg(40);
+            return p;
+        }));
+        list.add(new Case("interactive-tube-max", 900, 800, () -> {
+            // 接近網格上限：12 圈、dTheta 0.001、12 邊 → 約 36 萬個三角形
+            ConicalSpiral3DInteractive.SpiralPanel p = new ConicalSpiral3DInteractive.SpiralPanel();
+            p.setMeshMode(true);
+            p.setMeshSides(12);
+            p.setTurns(12);
+            p.setDTheta(0.001);
+            p.setLiftPerRad(5.0);
+            p.setPitchDeg(40);
+            return p;
+        }));
+        list.add(new Case("interactive-particles", 900, 800, () -> {
+            // 一萬顆粒子；固定每張前進 1/60 秒，影像才能與 golden 比對
+            ConicalSpiral3DInteractive.SpiralPanel p = new ConicalSpiral3DInteractive.SpiralPanel();
+            p.setParticleCount(10000);
+            p.particles().setFixedStep(1 / 60.0);
+            return p;
+        }));
+        return list;
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String> argList = Arrays.asList(args);
+        boolean updateAll = argList.equals(Collections.singletonList("--update"));
+        Set<String> updateCases = new HashSet<>();
+        if (argList.contains("--update")) updateCases.addAll(argList.subList(argList.indexOf("--update") + 1, argList.size()));
+        Set<String> known = new HashSet<>();
+        for (Case c : cases()) known.add(c.name);
+        for (String name : updateCases) {
+            if (!known.contains(name)) {
+                System.err.println("unknown case: " + name);
+                System.exit(2);
+            }
+        }
+        Properties budgets = loadBudgets();
+        GOLDEN_DIR.mkdirs();
+        OUT_DIR.mkdirs();
+
+        System.out.printf(Locale.ROOT, "%-26s %20s %24s %16s  %s%n",
+                "case", "frame ms (budget)", "alloc KB/frame (budget)", "image diff", "result");
+        int failures = 0;
+        boolean budgetsChanged = false;
+        Map<String, Case> byName = new HashMap<>();
+        for (Case c : cases()) byName.put(c.name, c);
+        for (Case c : cases()) {
+            boolean update = updateAll || updateCases.contains(c.name);
+            Result r = run(c);
+            double baseMs = Double.NaN, caseMs = Double.NaN;
+            if (c.relativeTo != null) {
+                // 相對成本：第一次只當暖機，之後基準案例與本案例交替量測，兩邊都在 JIT 暖機後取得
+                baseMs = Double.MAX_VALUE;
+                caseMs = Double.MAX_VALUE;
+                for (int round = 0; round < RATIO_ROUNDS; round++) {
+                    baseMs = Math.min(baseMs, run(byName.get(c.relativeTo)).medianMs);
+                    r = run(c);
+                    caseMs = Math.min(caseMs, r.medianMs);
+                }
+            }
+            List<String> problems = new ArrayList<>();
+
+            File golden = new File(GOLDEN_DIR, c.name + ".png");
+            String diffText;
+            if (update) {
+                ImageIO.write(r.image, "png", golden);
+                diffText = "(written)";
+            } else if (!golden.exists()) {
+                problems.add("no golden");
+                ImageIO.write(r.image, "png", new File(OUT_DIR, c.name + ".actual.png"));
+                diffText = "(missing)";
+            } else {
+                double ratio = diffRatio(ImageIO.read(golden), r.image);
+                diffText = String.format(Locale.ROOT, "%.3f%%", ratio * 100);
+                if (ratio > MAX_DIFF_RATIO) {
+                    problems.add("image");
+                    ImageIO.write(r.image, "png", new File(OUT_DIR, c.name + ".actual.png"));
+                }
+            }
+
+            double frameBudget = budget(budgets, c.name + ".frameMs");
+            double allocBudget = budget(budgets, c.name + ".allocKB");
+            if (update) {
+                frameBudget = roundUp(r.medianMs * BUDGET_HEADROOM);
+                budgets.setProperty(c.name + ".frameMs", fmt(frameBudget));
+                if (r.allocKB >= 0) {
+                    allocBudget = roundUp(r.allocKB * BUDGET_HEADROOM);
+                    budgets.setProperty(c.name + ".allocKB", fmt(allocBudget));
+                }
+                budgetsChanged = true;
+            }
+            if (Double.isNaN(frameBudget)) problems.add("no time budget");
+            else if (r.medianMs > frameBudget) problems.add("time");
+            // JVM 不支援配置量統計時無從比較，只檢查時間
+            if (r.allocKB >= 0) {
+                if (Double.isNaN(allocBudget)) problems.add("no alloc budget");
+                else if (r.allocKB > allocBudget) problems.add("alloc");
+            }
+
+            String ratioText = null;
+            if (c.relativeTo != null) {
+                double ratio = caseMs / baseMs;
+                double ratioBudget = budget(budgets, c.name + ".ratio");
+                if (update) {
+                    // 不依量測值放寬：一律寫回案例定義的需求上限
+                    ratioBudget = c.maxRatio;
+                    budgets.setProperty(c.name + ".ratio", fmt(ratioBudget));
+                }
+                if (Double.isNaN(ratioBudget)) problems.add("no ratio budget");
+                else if (ratio > ratioBudget) problems.add("ratio");
+                ratioText = String.format(Locale.ROOT, "  %.2fx %s (budget %s)", ratio, c.relativeTo,
+                        Double.isNaN(ratioBudget) ? "-" : fmt(ratioBudget));
+            }
+
+            String alloc = r.allocKB < 0 ? "n/a" : fmt(r.allocKB);
+            System.out.printf(Locale.ROOT, "%-26s %20s %24s %16s  %s%n", c.name,
+                    fmt(r.medianMs) + " (" + (Double.isNaN(frameBudget) ? "-" : fmt(frameBudget)) + ")",
+                    alloc + " (" + (Double.isNaN(allocBudget) ? "-" : fmt(allocBudget)) + ")",
+                    diffText,
+                    problems.isEmpty() ? "ok" : "FAIL " + String.join(",", problems));
+            if (ratioText != null) System.out.println(ratioText);
+            if (!problems.isEmpty()) failures++;
+        }
+
+        if (!checkIncrementalGeometry()) failures++;
+
+        if (budgetsChanged) saveBudgets(budgets);
+        System.out.println();
+        System.out.println(failures == 0 ? "all cases passed" : failures + " case(s) failed; actual images in " + OUT_DIR);
+        if (failures > 0) System.exit(1);
+    }
+
+    // ===================== 量測 =====================
+    private static final class Result {
+        BufferedImage image;
+        double medianMs;
+        double allocKB; // -1 表示 JVM 不支援執行緒配置量統計
+    }
+
+    private static Result run(Case c) {
+        JComponent panel = c.factory.get();
+        panel.setSize(c.width, c.height);
+        BufferedImage img = new BufferedImage(c.width, c.height, BufferedImage.TYPE_INT_ARGB);
+
+        for (int i = 0; i < WARMUP_FRAMES; i++) render(panel, img);
+
+        long[] times = new long[MEASURED_FRAMES];
+        long alloc0 = allocatedBytes();
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            long t0 = System.nanoTime();
+            render(panel, img);
+            times[i] = System.nanoTime() - t0;
+        }
+        long alloc1 = allocatedBytes();
+        Arrays.sort(times);
+
+        Result r = new Result();
+        r.image = img;
+        r.medianMs = times[MEASURED_FRAMES / 2] / 1e6;
+        r.allocKB = alloc0 < 0 ? -1 : (alloc1 - alloc0) / 1024.0 / MEASURED_FRAMES;
+        return r;
+    }
+
+    private static void render(JComponent panel, BufferedImage img) {
+        Graphics2D g = img.createGraphics();
+        try {
+            panel.paint(g);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) bean;
+            if (sun.isThreadAllocatedMemorySupported() && sun.isThreadAllocatedMemoryEnabled()) {
+                return sun.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    // ===================== 影像比對 =====================
+    private static double diffRatio(BufferedImage expected, BufferedImage actual) {
+        int w = expected.getWidth(), h = expected.getHeight();
+        if (w != actual.getWidth() || h != actual.getHeight()) return 1.0;
+        float[] a = blurredLuma(expected), b = blurredLuma(actual);
+        int bad = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (Math.abs(a[i] - b[i]) > PIXEL_THRESHOLD) bad++;
+        }
+        return bad / (double) a.length;
+    }
+
+    /** 亮度（已與白色背景合成）經 3×3 box blur。 */
+    private static float[] blurredLuma(BufferedImage img) {
+        int w = img.getWidth(), h = img.getHeight();
+        float[] luma = new float[w * h];
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int argb = img.getRGB(x, y);
+                float a = (argb >>> 24) / 255f;
+                float l = (0.299f * ((argb >> 16) & 0xff) + 0.587f * ((argb >> 8) & 0xff) + 0.114f * (argb & 0xff)) / 255f;
+                luma[y * w + x] = l * a + (1 - a);
+            }
+        }
+        float[] out = new float[w * h];
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                float sum = 0;
+                int n = 0;
+                for (int dy = -1; dy <= 1; dy++) {
+                    int yy = y + dy;
+                    if (yy < 0 || yy >= h) continue;
+                    for (int dx = -1; dx <= 1; dx++) {
+                        int xx = x + dx;
+                        if (xx < 0 || xx >= w) continue;
+                        sum += luma[yy * w + xx];
+                        n++;
+                    }
+                }
+                out[y * w + x] = sum / n;
+            }
+        }
+        return out;
+    }
+
+    // ===================== 增量幾何 =====================
+
+    // 增量路徑（追加/截斷、加密、抽稀、只改 lift、非整數比與阿基米德的整條重算）每一步都要與全新產生的結果相同
+    private static final double GEOMETRY_TOLERANCE = 1e-9;
+    private static final int GEOMETRY_RANDOM_STEPS = 500;
+
+    // 參數順序同 SpiralGeometry.update：turns, archimedean(0/1), decay, endRatio, lift, dTheta, r0
+    private static final int TURNS = 0, ARCH = 1, DECAY = 2, END_RATIO = 3, LIFT = 4, DTHETA = 5, R0 = 6;
+
+    private static boolean checkIncrementalGeometry() {
+        List<double[]> steps = geometrySteps();
+        boolean ok = true;
+        for (VertexBuffer.Layout layout : VertexBuffer.Layout.values()) {
+            SpiralGeometry incremental = new SpiralGeometry(layout);
+            double maxError = 0;
+            int updates = 0, reused = 0;
+            for (double[] p : steps) {
+                if (!update(incremental, p)) continue;
+                updates++;
+                if (incremental.lastComputed() < incremental.vertices().size()) reused++;
+                SpiralGeometry fresh = new SpiralGeometry(layout);
+                update(fresh, p);
+                maxError = Math.max(maxError, maxDifference(incremental.vertices(), fresh.vertices()));
+                fresh.vertices().close();
+            }
+            incremental.vertices().close();
+            boolean pass = maxError <= GEOMETRY_TOLERANCE;
+            System.out.printf(Locale.ROOT, "%-26s %s: %d updates (%d incremental), max error %.1e (limit %.0e)  %s%n",
+                    "geometry-incremental", layout, updates, reused, maxError, GEOMETRY_TOLERANCE,
+                    pass ? "ok" : "FAIL");
+            ok &= pass;
+        }
+        return ok;
+    }
+
+    private static boolean update(SpiralGeometry g, double[] p) {
+        return g.update(p[TURNS], p[ARCH] != 0, p[DECAY], p[END_RATIO], p[LIFT], p[DTHETA], p[R0]);
+    }
+
+    /** 逐點最大差；點數不同時回傳無限大。 */
+    private static double maxDifference(VertexBuffer a, VertexBuffer b) {
+        if (a.size() != b.size()) return Double.POSITIVE_INFINITY;
+        double max = 0;
+        for (int i = 0; i < a.size(); i++) {
+            max = Math.max(max, Math.abs(a.x(i) - b.x(i)));
+            max = Math.max(max, Math.abs(a.y(i) - b.y(i)));
+            max = Math.max(max, Math.abs(a.z(i) - b.z(i)));
+        }
+        return max;
+    }
+
+    /** 先走一遍涵蓋每條增量路徑的固定序列，再接固定種子的隨機序列（每步改一個參數）。 */
+    private static List<double[]> geometrySteps() {
+        List<double[]> steps = new ArrayList<>();
+        double[] p = {6, 0, 0.85, 0.08, 2.0, 0.004, 304};
+        steps.add(p.clone());
+        steps.add(p = with(p, TURNS, 9));         // 追加
+        steps.add(p = with(p, TURNS, 4.5));       // 截斷
+        steps.add(p = with(p, DTHETA, 0.002));    // 加密 ×2
+        steps.add(p = with(p, DTHETA, 0.0005));   // 加密 ×4
+        steps.add(p = with(p, DTHETA, 0.003));    // 抽稀 ×6
+        steps.add(p = with(p, LIFT, 5.0));        // 只改 lift
+        p = with(p, LIFT, 0);
+        steps.add(p = with(p, DTHETA, 0.001));    // 加密 ×3 同時改 lift
+        steps.add(p = with(p, DTHETA, 0.0025));   // 非整數比，整條重算
+        steps.add(p = with(p, DECAY, 0.75));      // 半徑函數改變
+        steps.add(p = with(p, ARCH, 1));          // 切換阿基米德
+        steps.add(p = with(p, TURNS, 8));         // 阿基米德改圈數：整條重算
+        steps.add(p = with(p, END_RATIO, 0.12));
+        steps.add(p = with(p, DTHETA, 0.00125));  // 阿基米德加密
+        steps.add(p = with(p, LIFT, 3.0));
+        steps.add(p = with(p, R0, 250));
+        steps.add(p = with(p, ARCH, 0));
+
+        // 取值偏向整數比，讓大部分步驟走增量路徑
+        double[][] values = {
+                {1, 2.5, 4, 6, 7.25, 9, 12},
+                {0, 1},
+                {0.5, 0.75, 0.85, 0.95},
+                {0.02, 0.08, 0.3},
+                {0, 0.5, 2, 5},
+                {0.001, 0.0015, 0.002, 0.003, 0.004, 0.006, 0.012, 0.005},
+                {250, 304}};
+        int[] weights = {4, 1, 1, 1, 3, 5, 1};
+        int totalWeight = 0;
+        for (int w : weights) totalWeight += w;
+        Random random = new Random(33);
+        for (int n = 0; n < GEOMETRY_RANDOM_STEPS; n++) {
+            int pick = random.nextInt(totalWeight), k = 0;
+            while (pick >= weights[k]) pick -= weights[k++];
+            steps.add(p = with(p, k, values[k][random.nextInt(values[k].length)]));
+        }
+        return steps;
+    }
+
+    private static double[] with(double[] p, int index, double value) {
+        double[] q = p.clone();
+        q[index] = value;
+        return q;
+    }
+
+    // ===================== 預算檔 =====================
+    private static Properties loadBudgets() throws IOException {
+        Properties p = new Properties();
+        if (BUDGET_FILE.exists()) {
+            try (InputStream in = new FileInputStream(BUDGET_FILE)) {
+                p.load(in);
+            }
+        }
+        return p;
+    }
+
+    /** 依鍵排序、不寫時間戳記，只更新部分案例時 diff 只會出現那幾行。 */
+    private static void saveBudgets(Properties p) throws IOException {
+        List<String> keys = new ArrayList<>(p.stringPropertyNames());
+        Collections.sort(keys);
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(BUDGET_FILE), StandardCharsets.ISO_8859_1)) {
+            out.write("#Per-frame budgets: median frame time (ms) and allocation (KB). Regenerate with --update.\n");
+            for (String k : keys) out.write(k + "=" + p.getProperty(k) + "\n");
+        }
+    }
+
+    private static double budget(Properties p, String key) {
+        String v = p.getProperty(key);
+        return v == null ? Double.NaN : Double.parseDouble(v);
+    }
+
+    private static double roundUp(double v) {
+        return Math.ceil(v * 10) / 10.0;
+    }
+
+    private static String fmt(double v) {
+        return String.format(Locale.ROOT, "%.1f", v);
+    }
+}
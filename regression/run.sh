@@ -0,0 +1,14 @@
+#!/usr/bin/env bash
+# 無頭效能回歸測試：編譯四個畫面與 SpiralRegression，然後比對 golden 影像與每張畫面的預算。
+# 用法：./run.sh            檢查（失敗時 exit code 1）
+#       ./run.sh --update   重新產生 golden/ 與 budgets.properties
+#       ./run.sh --update interactive-tube   只重新產生指定的案例
+set -euo pipefail
+cd "$(dirname "$0")"
+
+CLASSES=build/classes
+rm -rf "$CLASSES"
+mkdir -p "$CLASSES"
+javac -encoding UTF-8 -d "$CLASSES" -sourcepath "../2D:../3D:../3D_UI:../3D_UI_Viewer:." SpiralRegression.java
+
+java -Djava.awt.headless=true -cp "$CLASSES" SpiralRegression "$@"